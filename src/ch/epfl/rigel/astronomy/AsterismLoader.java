@@ -5,7 +5,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -14,8 +15,6 @@ import java.util.stream.Collectors;
 public enum AsterismLoader implements StarCatalogue.Loader {
     INSTANCE;
 
-    private Map<Integer, Star> starsID = new HashMap<>();
-
     /**
      * This method adds to the catalog builder all the asterism obtained from the HYG catalog using the content of the columns as explained in the instruction.
      *
@@ -27,15 +26,11 @@ public enum AsterismLoader implements StarCatalogue.Loader {
     public void load(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
 
         try (BufferedReader s = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII))) {
-            for (Star star : builder.stars()) {
-                starsID.put(star.hipparcosId(), star);
-            }
-
             String line;
 
             while ((line = s.readLine()) != null) {
                 String[] data = line.split(",");
-                List<Star> starList = Arrays.stream(data).map(id -> starsID.get(Integer.parseInt(id))).collect(Collectors.toList());
+                List<Star> starList = Arrays.stream(data).map(id -> builder.starWithHipparcosId(Integer.parseInt(id))).collect(Collectors.toList());
                 builder.addAsterism(new Asterism(starList));
             }
         }
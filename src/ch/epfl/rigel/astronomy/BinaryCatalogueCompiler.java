@@ -0,0 +1,90 @@
+package ch.epfl.rigel.astronomy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One-time compiler of the HYG and pulsar CSV files into the binary catalogue read by BinaryCatalogueLoader.
+ * <p>
+ * Usage : BinaryCatalogueCompiler hygdata_v3.csv pulscat.csv catalogue.bin
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class BinaryCatalogueCompiler {
+
+    private BinaryCatalogueCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: BinaryCatalogueCompiler <hygdata.csv> <pulscat.csv> <output>");
+            System.exit(1);
+        }
+
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        try (InputStream hygStream = Files.newInputStream(Path.of(args[0]));
+             InputStream pulsarStream = Files.newInputStream(Path.of(args[1]))) {
+            builder.loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .loadFrom(pulsarStream, PulsarDatabaseLoader.INSTANCE);
+        }
+
+        try (OutputStream output = Files.newOutputStream(Path.of(args[2]))) {
+            write(builder.stars(), builder.pulsars(), output);
+        }
+        System.out.printf("%d stars and %d pulsars written to %s%n", builder.stars().size(), builder.pulsars().size(), args[2]);
+    }
+
+    /**
+     * Write the stars and pulsars in the binary catalogue format
+     *
+     * @param stars   the stars, in catalogue order
+     * @param pulsars the pulsars, in catalogue order
+     * @param output  the stream to write to (not closed)
+     * @throws IOException in case of errors
+     */
+    public static void write(List<Star> stars, List<Pulsar> pulsars, OutputStream output) throws IOException {
+        DataOutputStream s = new DataOutputStream(new BufferedOutputStream(output));
+        s.writeInt(BinaryCatalogueLoader.MAGIC);
+        s.writeInt(BinaryCatalogueLoader.VERSION);
+        s.writeInt(stars.size());
+        s.writeInt(pulsars.size());
+
+        for (Star star : stars) s.writeInt(star.hipparcosId());
+        for (Star star : stars) s.writeDouble(star.equatorialPos().ra());
+        for (Star star : stars) s.writeDouble(star.equatorialPos().dec());
+        for (Star star : stars) s.writeFloat((float) star.magnitude());
+        for (Star star : stars) s.writeFloat((float) star.colorIndex());
+        writeNames(stars, s);
+
+        for (Pulsar pulsar : pulsars) s.writeDouble(pulsar.equatorialPos().ra());
+        for (Pulsar pulsar : pulsars) s.writeDouble(pulsar.equatorialPos().dec());
+        for (Pulsar pulsar : pulsars) s.writeDouble(pulsar.getP0());
+        for (Pulsar pulsar : pulsars) s.writeDouble(pulsar.getP1());
+        for (Pulsar pulsar : pulsars) s.writeDouble(pulsar.getAge());
+        for (Pulsar pulsar : pulsars) s.writeDouble(pulsar.getDistance());
+        for (Pulsar pulsar : pulsars) s.writeFloat((float) pulsar.magnitude());
+        writeNames(pulsars, s);
+
+        s.flush();
+    }
+
+    private static void writeNames(List<? extends CelestialObject> objects, DataOutputStream s) throws IOException {
+        byte[][] names = new byte[objects.size()][];
+        int end = 0;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = objects.get(i).name().getBytes(StandardCharsets.UTF_8);
+            end += names[i].length;
+            s.writeInt(end);
+        }
+        for (byte[] name : names) {
+            s.write(name);
+        }
+    }
+}
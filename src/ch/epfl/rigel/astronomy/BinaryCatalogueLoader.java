@@ -0,0 +1,161 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loads stars and pulsars from the binary catalogue written by BinaryCatalogueCompiler.
+ * <p>
+ * The file starts with a header (magic number, version, number of stars, number of pulsars) followed by
+ * one column per field, so that every column is read with a single bulk copy and no text is parsed :
+ * <pre>
+ * stars   : int hip[], double ra[], double dec[], float magnitude[], float colorIndex[], names
+ * pulsars : double ra[], double dec[], double p0[], double p1[], double age[], double dist[], float magnitude[], names
+ * names   : int end[] (exclusive end offset of each name), then the UTF-8 bytes of all names
+ * </pre>
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public enum BinaryCatalogueLoader implements StarCatalogue.Loader {
+    INSTANCE;
+
+    static final int MAGIC = 0x52474C43; // "RGLC"
+    static final int VERSION = 1;
+
+    // Bytes per star and per pulsar in the columns, the end offset of the name included but not its bytes
+    private static final int STAR_BYTES = 2 * Integer.BYTES + 2 * Double.BYTES + 2 * Float.BYTES;
+    private static final int PULSAR_BYTES = Integer.BYTES + 6 * Double.BYTES + Float.BYTES;
+
+    /**
+     * Adds to the builder all the stars and pulsars of the binary catalogue. A file stream is memory mapped,
+     * any other stream is read entirely in memory.
+     *
+     * @param inputStream the stream of data
+     * @param builder     the catalogue in construction
+     * @throws IOException in case of errors or if the stream doesn't contain a complete binary catalogue
+     */
+    @Override
+    public void load(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
+        try (InputStream s = inputStream) {
+            ByteBuffer buffer = (s instanceof FileInputStream)
+                    ? map(((FileInputStream) s).getChannel())
+                    : ByteBuffer.wrap(s.readAllBytes());
+            load(buffer, builder);
+        }
+    }
+
+    /**
+     * Adds to the builder all the stars and pulsars of the binary catalogue file, through a memory mapping
+     *
+     * @param path    the binary catalogue file
+     * @param builder the catalogue in construction
+     * @throws IOException in case of errors or if the file doesn't contain a complete binary catalogue
+     */
+    public void load(Path path, StarCatalogue.Builder builder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            load(map(channel), builder);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, channel.position(), channel.size() - channel.position());
+    }
+
+    private static void load(ByteBuffer buffer, StarCatalogue.Builder builder) throws IOException {
+        if (buffer.remaining() < 4 * Integer.BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("not a binary catalogue of version " + VERSION);
+        }
+        int starCount = buffer.getInt();
+        int pulsarCount = buffer.getInt();
+        if (starCount < 0 || pulsarCount < 0
+                || buffer.remaining() < (long) starCount * STAR_BYTES + (long) pulsarCount * PULSAR_BYTES) {
+            throw new IOException("truncated binary catalogue of " + starCount + " stars and " + pulsarCount + " pulsars");
+        }
+
+        int[] hip = ints(buffer, starCount);
+        double[] ra = doubles(buffer, starCount);
+        double[] dec = doubles(buffer, starCount);
+        float[] magnitude = floats(buffer, starCount);
+        float[] colorIndex = floats(buffer, starCount);
+        String[] names = strings(buffer, starCount);
+
+        double[] pulsarRa = doubles(buffer, pulsarCount);
+        double[] pulsarDec = doubles(buffer, pulsarCount);
+        double[] p0 = doubles(buffer, pulsarCount);
+        double[] p1 = doubles(buffer, pulsarCount);
+        double[] age = doubles(buffer, pulsarCount);
+        double[] dist = doubles(buffer, pulsarCount);
+        float[] pulsarMagnitude = floats(buffer, pulsarCount);
+        String[] pulsarNames = strings(buffer, pulsarCount);
+
+        // Every section was read, so that a truncated or corrupted catalogue leaves the builder untouched
+        for (int i = 0; i < starCount; i++) {
+            builder.addStar(new Star(hip[i], names[i], EquatorialCoordinates.of(ra[i], dec[i]), magnitude[i], colorIndex[i]));
+        }
+        for (int i = 0; i < pulsarCount; i++) {
+            builder.addPulsar(new Pulsar(pulsarNames[i], EquatorialCoordinates.of(pulsarRa[i], pulsarDec[i]),
+                    p0[i], p1[i], age[i], dist[i], pulsarMagnitude[i]));
+        }
+    }
+
+    private static int[] ints(ByteBuffer buffer, int count) throws IOException {
+        checkRemaining(buffer, (long) count * Integer.BYTES);
+        int[] column = new int[count];
+        buffer.asIntBuffer().get(column);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return column;
+    }
+
+    private static float[] floats(ByteBuffer buffer, int count) throws IOException {
+        checkRemaining(buffer, (long) count * Float.BYTES);
+        float[] column = new float[count];
+        buffer.asFloatBuffer().get(column);
+        buffer.position(buffer.position() + count * Float.BYTES);
+        return column;
+    }
+
+    private static double[] doubles(ByteBuffer buffer, int count) throws IOException {
+        checkRemaining(buffer, (long) count * Double.BYTES);
+        double[] column = new double[count];
+        buffer.asDoubleBuffer().get(column);
+        buffer.position(buffer.position() + count * Double.BYTES);
+        return column;
+    }
+
+    private static String[] strings(ByteBuffer buffer, int count) throws IOException {
+        int[] ends = ints(buffer, count);
+        int start = 0;
+        for (int end : ends) {
+            if (end < start) {
+                throw new IOException("invalid name offsets in binary catalogue");
+            }
+            start = end;
+        }
+        checkRemaining(buffer, start);
+        byte[] bytes = new byte[start];
+        buffer.get(bytes);
+
+        String[] strings = new String[count];
+        start = 0;
+        for (int i = 0; i < count; i++) {
+            strings[i] = new String(bytes, start, ends[i] - start, StandardCharsets.UTF_8);
+            start = ends[i];
+        }
+        return strings;
+    }
+
+    // The names of the stars take a part of the bytes counted for the columns following them, which are thus checked too
+    private static void checkRemaining(ByteBuffer buffer, long bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            throw new IOException("truncated binary catalogue");
+        }
+    }
+}
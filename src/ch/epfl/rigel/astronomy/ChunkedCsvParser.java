@@ -0,0 +1,69 @@
+package ch.epfl.rigel.astronomy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Parses the lines of a CSV file in parallel : the bytes are split into ranges aligned on line boundaries,
+ * each range is parsed on the common ForkJoin pool, and the rows are merged back in the order of the file.
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class ChunkedCsvParser {
+
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ChunkedCsvParser() {
+    }
+
+    /**
+     * Parses all the lines of the file except the first one (header)
+     *
+     * @param bytes     the content of the file
+     * @param separator the character between two fields
+     * @param rowParser the function building a row from the scanner placed on its line
+     * @param <T>       the type of the rows
+     * @return the rows, in the order of the file
+     */
+    static <T> List<T> parse(byte[] bytes, char separator, Function<CsvFieldScanner, T> rowParser) {
+        int start = new CsvFieldScanner(bytes, separator).startLine(0, bytes.length);
+        int length = bytes.length - start;
+        int chunkCount = Math.max(1, Math.min(length / MIN_CHUNK_BYTES, ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD));
+
+        int[] bounds = new int[chunkCount + 1];
+        bounds[0] = start;
+        bounds[chunkCount] = bytes.length;
+        for (int c = 1; c < chunkCount; c++) {
+            int bound = Math.max(bounds[c - 1], start + (int) ((long) length * c / chunkCount));
+            while (bound < bytes.length && bound > 0 && bytes[bound - 1] != '\n') {
+                bound++;
+            }
+            bounds[c] = bound;
+        }
+
+        List<List<T>> chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(c -> parseChunk(bytes, separator, bounds[c], bounds[c + 1], rowParser))
+                .collect(Collectors.toList());
+
+        List<T> rows = new ArrayList<>(chunks.stream().mapToInt(List::size).sum());
+        chunks.forEach(rows::addAll);
+        return rows;
+    }
+
+    private static <T> List<T> parseChunk(byte[] bytes, char separator, int from, int to, Function<CsvFieldScanner, T> rowParser) {
+        CsvFieldScanner scanner = new CsvFieldScanner(bytes, separator);
+        List<T> rows = new ArrayList<>();
+        int position = from;
+        while (position < to) {
+            position = scanner.startLine(position, to);
+            rows.add(rowParser.apply(scanner));
+        }
+        return rows;
+    }
+}
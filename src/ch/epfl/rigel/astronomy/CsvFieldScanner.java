@@ -0,0 +1,210 @@
+package ch.epfl.rigel.astronomy;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner of the fields of one line of a CSV file, reading directly from the bytes of the file.
+ * Fields must be read in increasing order, and numbers are parsed without creating any String
+ * (except in the rare cases the fast path can't parse exactly, where Java's parsing is used).
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class CsvFieldScanner {
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final byte[] bytes;
+    private final byte separator;
+
+    private int lineEnd;
+    private int fieldIndex;
+    private int fieldStart;
+    private int fieldEnd;
+
+    /**
+     * @param bytes     the content of the file
+     * @param separator the character between two fields
+     */
+    CsvFieldScanner(byte[] bytes, char separator) {
+        this.bytes = bytes;
+        this.separator = (byte) separator;
+    }
+
+    /**
+     * Place the scanner on the line starting at the given position
+     *
+     * @param lineStart the position of the first character of the line
+     * @param limit     the position after which there is no more line to read
+     * @return the position of the next line
+     */
+    int startLine(int lineStart, int limit) {
+        int end = lineStart;
+        while (end < limit && bytes[end] != '\n') {
+            end++;
+        }
+        int next = end < limit ? end + 1 : end;
+        if (end > lineStart && bytes[end - 1] == '\r') {
+            end--;
+        }
+
+        lineEnd = end;
+        fieldIndex = 0;
+        fieldStart = lineStart;
+        fieldEnd = endOfField(lineStart);
+        return next;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return true if the field is empty (or missing)
+     */
+    boolean isEmpty(int index) {
+        moveTo(index);
+        return fieldStart == fieldEnd;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the content of the field
+     */
+    String string(int index) {
+        moveTo(index);
+        return new String(bytes, fieldStart, fieldEnd - fieldStart, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param index        the index of the field
+     * @param defaultValue the value of an empty field
+     * @return the field parsed as an integer
+     * @throws NumberFormatException if the field isn't an integer
+     */
+    int intValue(int index, int defaultValue) {
+        moveTo(index);
+        if (fieldStart == fieldEnd) {
+            return defaultValue;
+        }
+
+        int value = 0;
+        for (int i = fieldStart; i < fieldEnd; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || i - fieldStart >= 9) {
+                return Integer.parseInt(string(index));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a required field as a double, giving exactly the same value as Double.parseDouble
+     *
+     * @param index the index of the field
+     * @return the field parsed as a double
+     * @throws NumberFormatException if the field is empty or isn't a number
+     */
+    double doubleValue(int index) {
+        if (isEmpty(index)) {
+            throw new NumberFormatException("empty String");
+        }
+        return doubleValue(index, 0);
+    }
+
+    /**
+     * Parses the field as a double, giving exactly the same value as Double.parseDouble
+     *
+     * @param index        the index of the field
+     * @param defaultValue the value of an empty field
+     * @return the field parsed as a double
+     * @throws NumberFormatException if the field isn't a number
+     */
+    double doubleValue(int index, double defaultValue) {
+        moveTo(index);
+        if (fieldStart == fieldEnd) {
+            return defaultValue;
+        }
+
+        int i = fieldStart;
+        boolean negative = bytes[i] == '-';
+        if (negative || bytes[i] == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean point = false;
+        boolean anyDigit = false;
+        for (; i < fieldEnd; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) digits++;
+                    if (point) exponent--;
+                } else {
+                    return slowDouble();
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else if (b == 'e' || b == 'E') {
+                break;
+            } else {
+                return slowDouble();
+            }
+        }
+
+        if (!anyDigit) {
+            return slowDouble();
+        }
+        if (i < fieldEnd) {
+            i++;
+            boolean negativeExponent = i < fieldEnd && bytes[i] == '-';
+            if (i < fieldEnd && (negativeExponent || bytes[i] == '+')) {
+                i++;
+            }
+            if (i == fieldEnd || fieldEnd - i > 3) {
+                return slowDouble();
+            }
+            int e = 0;
+            for (; i < fieldEnd; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return slowDouble();
+                }
+                e = e * 10 + digit;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return slowDouble();
+        }
+        // Both operands are exact, so a single correctly rounded operation gives the exact result
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    private double slowDouble() {
+        return Double.parseDouble(new String(bytes, fieldStart, fieldEnd - fieldStart, StandardCharsets.US_ASCII));
+    }
+
+    private void moveTo(int index) {
+        while (fieldIndex < index) {
+            fieldIndex++;
+            fieldStart = fieldEnd < lineEnd ? fieldEnd + 1 : lineEnd;
+            fieldEnd = endOfField(fieldStart);
+        }
+    }
+
+    private int endOfField(int start) {
+        int end = start;
+        while (end < lineEnd && bytes[end] != separator) {
+            end++;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,95 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Positions of the sun, the moon and the planets at a given moment. They only depend on the moment of the
+ * observation, so they can be kept while the observer or the projection changes
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class Ephemerides {
+
+    private final Sun sun;
+    private final Moon moon;
+    private final Planet[] planets;
+
+    /**
+     * @param when the moment of the observation
+     */
+    public Ephemerides(ZonedDateTime when) {
+        this(JulianTime.of(when));
+    }
+
+    /**
+     * @param daysSinceJ2000 the moment of the observation (see JulianTime)
+     */
+    public Ephemerides(double daysSinceJ2000) {
+        EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(Epoch.J2000.julianCenturiesUntil(daysSinceJ2000));
+        double daysSinceJ2010 = Epoch.J2010.daysUntil(daysSinceJ2000);
+
+        sun = SunModel.SUN.at(daysSinceJ2010, eclToEqu);
+        moon = MoonModel.MOON.at(daysSinceJ2010, eclToEqu);
+
+        int count = PlanetModel.OTHERS_COUNT;
+        double[] raDec = new double[2 * count];
+        float[] angularSize = new float[count];
+        float[] magnitude = new float[count];
+        PlanetModel.othersAt(daysSinceJ2010, eclToEqu, raDec, angularSize, magnitude);
+
+        planets = new Planet[count];
+        for (int i = 0; i < count; i++) {
+            planets[i] = new Planet(PlanetModel.OTHERS.get(i).getName(), EquatorialCoordinates.of(raDec[2 * i], raDec[2 * i + 1]),
+                    angularSize[i], magnitude[i], 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Interpolate the positions at the given moment (see EphemerisCache)
+     *
+     * @param when  the moment of the observation
+     * @param cache the cache of the interpolated positions
+     */
+    public Ephemerides(ZonedDateTime when, EphemerisCache cache) {
+        this(JulianTime.of(when), cache);
+    }
+
+    /**
+     * Interpolate the positions at the given moment (see EphemerisCache)
+     *
+     * @param daysSinceJ2000 the moment of the observation (see JulianTime)
+     * @param cache          the cache of the interpolated positions
+     */
+    public Ephemerides(double daysSinceJ2000, EphemerisCache cache) {
+        double daysSinceJ2010 = Epoch.J2010.daysUntil(daysSinceJ2000);
+
+        sun = cache.sunAt(daysSinceJ2010);
+        moon = cache.moonAt(daysSinceJ2010);
+
+        planets = new Planet[PlanetModel.ALL.size() - 1];
+        int i = 0;
+        for (PlanetModel planet : PlanetModel.values()) {
+            if (planet != PlanetModel.EARTH) {
+                planets[i++] = cache.planetAt(planet, daysSinceJ2010);
+            }
+        }
+    }
+
+    public Sun sun() {
+        return sun;
+    }
+
+    public Moon moon() {
+        return moon;
+    }
+
+    /**
+     * @return the planets other than the earth, in the order of PlanetModel (must not be modified)
+     */
+    public Planet[] planets() {
+        return planets;
+    }
+}
@@ -0,0 +1,260 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.coordinates.EclipticCoordinates;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.math.Angle;
+import ch.epfl.rigel.math.ChebyshevSeries;
+import ch.epfl.rigel.math.ClosedInterval;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+
+/**
+ * Positions of the sun, the moon and the planets interpolated by Chebyshev series (see ChebyshevSeries). Time is
+ * split in fixed windows for each body, and the models are only evaluated at the nodes of a window, the first time a
+ * moment of the window is asked for : the moments of the same window are then found by evaluating the series, which is
+ * much cheaper than the models, the one of the moon also evaluating the one of the sun.
+ * The position of a body is interpolated through its direction in equatorial coordinates (so that the right
+ * ascension doesn't jump from 2 PI to 0), the conversion from ecliptic coordinates being the one of each node.
+ * Compared to the models, between 1900 and 2100, the positions differ by less than POSITION_ACCURACY (the model of the
+ * moon itself being only that smooth, as it uses the mean anomaly of the sun rounded to a float), the angular sizes by
+ * less than 1e-6 times their value, the phase of the moon by less than 1e-6 and the magnitudes lower than 2 by less
+ * than 1e-3 (the magnitudes given by the model diverge at the inferior conjunctions of Mercury and Venus).
+ * The last windows of each body are kept, and they are shared by the threads using the cache
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class EphemerisCache {
+
+    /**
+     * Maximal angular distance between the interpolated positions and the ones of the models, in radian
+     */
+    public static final double POSITION_ACCURACY = Angle.ofArcsec(0.1);
+
+    private static final int MAX_WINDOWS = 16;
+
+    /**
+     * A body, with the windows and the number of nodes of its interpolation
+     */
+    private static final class Body<O extends CelestialObject> {
+        private final double windowDays;
+        private final int nodeCount;
+        private final DoubleFunction<O> model;
+        private final Interpolation<O> interpolation;
+        // The window of the last moment, which is most often the one of the next moment
+        private volatile Window<O> lastWindow;
+        private final Map<Long, Window<O>> windows = new LinkedHashMap<>(MAX_WINDOWS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Window<O>> eldest) {
+                return size() > MAX_WINDOWS;
+            }
+        };
+
+        private Body(double windowDays, int nodeCount, DoubleFunction<O> model, Interpolation<O> interpolation) {
+            this.windowDays = windowDays;
+            this.nodeCount = nodeCount;
+            this.model = model;
+            this.interpolation = interpolation;
+        }
+
+        private O at(double daysSinceJ2010) {
+            long index = (long) Math.floor(daysSinceJ2010 / windowDays);
+            Window<O> window = lastWindow;
+            if (window == null || window.index != index) {
+                synchronized (windows) {
+                    window = windows.computeIfAbsent(index, this::fit);
+                }
+                lastWindow = window;
+            }
+            double[] values = new double[window.series.length];
+            for (int c = 0; c < values.length; c++) {
+                values[c] = window.series[c].at(daysSinceJ2010);
+            }
+            return interpolation.object(window.first, values);
+        }
+
+        private Window<O> fit(long index) {
+            ClosedInterval interval = ClosedInterval.of(index * windowDays, (index + 1) * windowDays);
+            double[] nodes = ChebyshevSeries.nodes(interval, nodeCount);
+            O first = null;
+            double[][] samples = null;
+            for (int k = 0; k < nodeCount; k++) {
+                O object = model.apply(nodes[k]);
+                double[] values = interpolation.values(object);
+                if (samples == null) {
+                    first = object;
+                    samples = new double[values.length][nodeCount];
+                }
+                for (int c = 0; c < values.length; c++) {
+                    samples[c][k] = values[c];
+                }
+            }
+            ChebyshevSeries[] series = new ChebyshevSeries[samples.length];
+            for (int c = 0; c < series.length; c++) {
+                series[c] = ChebyshevSeries.interpolating(interval, samples[c]);
+            }
+            return new Window<>(index, first, series);
+        }
+    }
+
+    /**
+     * The series of a window, with one of its objects, giving the properties which don't change with time
+     */
+    private static final class Window<O> {
+        private final long index;
+        private final O first;
+        private final ChebyshevSeries[] series;
+
+        private Window(long index, O first, ChebyshevSeries[] series) {
+            this.index = index;
+            this.first = first;
+            this.series = series;
+        }
+    }
+
+    /**
+     * How the properties of a body are interpolated
+     */
+    private interface Interpolation<O> {
+        /**
+         * @param object an object given by the model
+         * @return the values of the interpolated properties of the object
+         */
+        double[] values(O object);
+
+        /**
+         * @param first  an object of the window
+         * @param values the interpolated values of the properties, in the order of values()
+         * @return the object with these properties
+         */
+        O object(O first, double[] values);
+    }
+
+    private static final ClosedInterval PHASE_INTERVAL = ClosedInterval.of(0, 1);
+
+    private static final Interpolation<Sun> SUN_INTERPOLATION = new Interpolation<>() {
+        @Override
+        public double[] values(Sun sun) {
+            double[] values = new double[7];
+            putDirection(sun.equatorialPos(), values);
+            values[3] = Math.cos(sun.eclipticPos().lon());
+            values[4] = Math.sin(sun.eclipticPos().lon());
+            values[5] = sun.angularSize();
+            values[6] = sun.meanAnomaly();
+            return values;
+        }
+
+        @Override
+        public Sun object(Sun first, double[] values) {
+            EclipticCoordinates eclipticPos = EclipticCoordinates.of(Angle.normalizePositive(Math.atan2(values[4], values[3])), 0);
+            return new Sun(eclipticPos, direction(values), (float) values[5], (float) values[6]);
+        }
+    };
+
+    private static final Interpolation<Moon> MOON_INTERPOLATION = new Interpolation<>() {
+        @Override
+        public double[] values(Moon moon) {
+            double[] values = new double[6];
+            putDirection(moon.equatorialPos(), values);
+            values[3] = moon.angularSize();
+            values[4] = moon.magnitude();
+            values[5] = moon.phase();
+            return values;
+        }
+
+        @Override
+        public Moon object(Moon first, double[] values) {
+            return new Moon(direction(values), (float) values[3], (float) values[4], (float) PHASE_INTERVAL.clip(values[5]));
+        }
+    };
+
+    private static final Interpolation<Planet> PLANET_INTERPOLATION = new Interpolation<>() {
+        @Override
+        public double[] values(Planet planet) {
+            double[] values = new double[5];
+            putDirection(planet.equatorialPos(), values);
+            values[3] = planet.angularSize();
+            // The magnitude of the inner planets diverges at their inferior conjunction, unlike the square of their
+            // brightness, proportional to their phase
+            values[4] = Math.pow(10, -0.8 * planet.magnitude());
+            return values;
+        }
+
+        @Override
+        public Planet object(Planet first, double[] values) {
+            float magnitude = (float) (-1.25 * Math.log10(Math.max(values[4], Double.MIN_NORMAL)));
+            return new Planet(first.name(), direction(values), (float) values[3], magnitude,
+                    first.getAge(), first.getDistance(), first.getP0(), first.getP1());
+        }
+    };
+
+    private final Body<Sun> sun;
+    private final Body<Moon> moon;
+    private final Map<PlanetModel, Body<Planet>> planets = new EnumMap<>(PlanetModel.class);
+
+    /**
+     * Create an empty cache, the windows being fitted the first time one of their moments is asked for
+     */
+    public EphemerisCache() {
+        sun = new Body<>(32, 8, d -> SunModel.SUN.at(d, conversionAt(d)), SUN_INTERPOLATION);
+        moon = new Body<>(4, 12, d -> MoonModel.MOON.at(d, conversionAt(d)), MOON_INTERPOLATION);
+        for (PlanetModel planet : PlanetModel.values()) {
+            if (planet != PlanetModel.EARTH) {
+                double windowDays = planet == PlanetModel.MERCURY || planet == PlanetModel.VENUS ? 8 : 32;
+                planets.put(planet, new Body<>(windowDays, 12, d -> planet.at(d, conversionAt(d)), PLANET_INTERPOLATION));
+            }
+        }
+    }
+
+    /**
+     * @param daysSinceJ2010 the number of days between J2010 and the moment
+     * @return the interpolated sun at the moment
+     */
+    public Sun sunAt(double daysSinceJ2010) {
+        return sun.at(daysSinceJ2010);
+    }
+
+    /**
+     * @param daysSinceJ2010 the number of days between J2010 and the moment
+     * @return the interpolated moon at the moment
+     */
+    public Moon moonAt(double daysSinceJ2010) {
+        return moon.at(daysSinceJ2010);
+    }
+
+    /**
+     * @param planet         a planet other than the earth
+     * @param daysSinceJ2010 the number of days between J2010 and the moment
+     * @return the interpolated planet at the moment
+     * @throws IllegalArgumentException if the planet is the earth
+     */
+    public Planet planetAt(PlanetModel planet, double daysSinceJ2010) {
+        Body<Planet> body = planets.get(planet);
+        if (body == null) {
+            throw new IllegalArgumentException();
+        }
+        return body.at(daysSinceJ2010);
+    }
+
+    /**
+     * @return the conversion of the moment at the given number of days since J2010
+     */
+    private static EclipticToEquatorialConversion conversionAt(double daysSinceJ2010) {
+        return new EclipticToEquatorialConversion(Epoch.J2000.julianCenturiesUntil(daysSinceJ2010 + Epoch.J2010.julianTime()));
+    }
+
+    private static void putDirection(EquatorialCoordinates position, double[] values) {
+        double cosDec = Math.cos(position.dec());
+        values[0] = cosDec * Math.cos(position.ra());
+        values[1] = cosDec * Math.sin(position.ra());
+        values[2] = Math.sin(position.dec());
+    }
+
+    private static EquatorialCoordinates direction(double[] values) {
+        return EquatorialCoordinates.of(Angle.normalizePositive(Math.atan2(values[1], values[0])),
+                Math.atan2(values[2], Math.sqrt(values[0] * values[0] + values[1] * values[1])));
+    }
+}
@@ -23,9 +23,11 @@ public enum Epoch {
 
 
     private final ZonedDateTime epoch;
+    private final double julianTime;
 
     Epoch(ZonedDateTime epoch) {
         this.epoch = epoch;
+        julianTime = JulianTime.of(epoch);
     }
 
     /**
@@ -48,6 +50,33 @@ public enum Epoch {
         return daysUntil(when) / daysPerCentury;
     }
 
+    /**
+     * Return the number of days until the moment, without any allocation
+     *
+     * @param daysSinceJ2000 the given moment (see JulianTime)
+     * @return number of days until the moment
+     */
+    public double daysUntil(double daysSinceJ2000) {
+        return daysSinceJ2000 - julianTime;
+    }
+
+    /**
+     * Return the number of julian centuries until the moment, without any allocation
+     *
+     * @param daysSinceJ2000 the given moment (see JulianTime)
+     * @return number of julian centuries until the moment
+     */
+    public double julianCenturiesUntil(double daysSinceJ2000) {
+        return daysUntil(daysSinceJ2000) / daysPerCentury;
+    }
+
+    /**
+     * @return the number of days since J2000 of the epoch (see JulianTime)
+     */
+    public double julianTime() {
+        return julianTime;
+    }
+
 
     /**
      * Return the epoch
@@ -8,12 +8,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * @author Souleyman Boudouh (302207)
  */
 public enum HygDatabaseLoader implements StarCatalogue.Loader {
-    INSTANCE;
+    /**
+     * Reads the catalogue line by line
+     */
+    INSTANCE(false),
+    /**
+     * Splits the catalogue into ranges of lines, parsed in parallel
+     */
+    PARALLEL(true);
 
     private static final int HIP = 1;
     private static final int PROPER = 6;
@@ -24,6 +32,12 @@ public enum HygDatabaseLoader implements StarCatalogue.Loader {
     private static final int BAYER = 27;
     private static final int CON = 29;
 
+    private final boolean parallel;
+
+    HygDatabaseLoader(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     /**
      * This method adds to the catalog builder all the stars obtained from the HYG catalog using the content of the columns as explained in the instruction.
      *
@@ -33,6 +47,10 @@ public enum HygDatabaseLoader implements StarCatalogue.Loader {
      */
     @Override
     public void load(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
+        if (parallel) {
+            loadInParallel(inputStream, builder);
+            return;
+        }
 
         try (BufferedReader s = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII))) {
             String line;
@@ -53,4 +71,29 @@ public enum HygDatabaseLoader implements StarCatalogue.Loader {
 
         }
     }
-}
\ No newline at end of file
+
+    private static void loadInParallel(InputStream inputStream, StarCatalogue.Builder builder) throws IOException {
+        byte[] bytes;
+        try (InputStream s = inputStream) {
+            bytes = s.readAllBytes();
+        }
+
+        List<Star> stars = ChunkedCsvParser.parse(bytes, ',', data -> {
+            int hipID = data.intValue(HIP, 0);
+            String proper = data.string(PROPER);
+            double mag = data.doubleValue(MAG, 0);
+            double colorIndex = data.doubleValue(CI, 0);
+            double rarad = data.doubleValue(RARAD);
+            double decrad = data.doubleValue(DECRAD);
+            String bayer = data.string(BAYER);
+            String con = data.string(CON);
+            String name = !(proper.equals("")) ? proper : (!(bayer.equals("")) ? bayer : "?") + " " + con;
+
+            return new Star(hipID, name, EquatorialCoordinates.of(Angle.normalizePositive(rarad), decrad), (float) mag, (float) colorIndex);
+        });
+
+        for (Star star : stars) {
+            builder.addStar(star);
+        }
+    }
+}
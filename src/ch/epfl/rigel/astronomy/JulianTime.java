@@ -0,0 +1,57 @@
+package ch.epfl.rigel.astronomy;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A moment as a primitive number : the number of days since J2000 (the julian date minus 2451545), in the time scale
+ * of the models (universal time). Unlike a ZonedDateTime, it is converted to the quantities the models use (days
+ * since an epoch, julian centuries, sidereal time) with a few floating-point operations and without any allocation,
+ * so that it can be used for each frame of an animation or each moment of a scan
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class JulianTime {
+
+    /**
+     * The julian date of J2000
+     */
+    public static final double J2000_JULIAN_DATE = 2451545;
+
+    // 2000-01-01T12:00Z
+    private static final long J2000_EPOCH_MILLI = 946_728_000_000L;
+
+    private JulianTime() {}
+
+    /**
+     * @param epochMilli the number of milliseconds since 1970-01-01T00:00Z
+     * @return the number of days since J2000 of the moment
+     */
+    public static double ofEpochMilli(long epochMilli) {
+        return (epochMilli - J2000_EPOCH_MILLI) / Epoch.millisPerDay;
+    }
+
+    /**
+     * @param when the moment, rounded down to the millisecond like Epoch.daysUntil
+     * @return the number of days since J2000 of the moment
+     */
+    public static double of(ZonedDateTime when) {
+        return ofEpochMilli(when.toInstant().toEpochMilli());
+    }
+
+    /**
+     * @param daysSinceJ2000 the number of days since J2000 of the moment
+     * @return the julian date of the moment
+     */
+    public static double julianDate(double daysSinceJ2000) {
+        return daysSinceJ2000 + J2000_JULIAN_DATE;
+    }
+
+    /**
+     * @param daysSinceJ2000 the number of days since J2000 of the moment
+     * @return the number of days since J2000 of the midnight (UTC) starting the day of the moment
+     */
+    static double startOfDay(double daysSinceJ2000) {
+        // J2000 is at noon
+        return Math.floor(daysSinceJ2000 + 0.5) - 0.5;
+    }
+}
@@ -32,6 +32,13 @@ public final class Moon extends CelestialObject {
         this.phase = (float) Preconditions.checkInInterval(phaseInterval, phase);
     }
 
+    /**
+     * @return the phase of the moon, between 0 (new moon) and 1 (full moon)
+     */
+    public double phase() {
+        return phase;
+    }
+
     /**
      * @return a visual representation of the moon's phase
      */
@@ -2,160 +2,361 @@ package ch.epfl.rigel.astronomy;
 
 import ch.epfl.rigel.Preconditions;
 import ch.epfl.rigel.coordinates.*;
-import javafx.scene.shape.Circle;
 
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static java.lang.Math.pow;
-import static java.lang.Math.sqrt;
-
 public class ObservedSky {
 
-    private final StarCatalogue catalogue;
-    private final Sun sun;
-    private final Moon moon;
-    private Map<CelestialObject, CartesianCoordinates> all = new HashMap<>();
-    private CartesianCoordinates sunProjectedPosition;
-    private CartesianCoordinates moonProjectedPosition;
-    private Pulsar[] pulsars;
-    private double[] pulsarProjectedPosition;
-    private Planet[] planetList;
-    private double[] starsPosition;
-    private Star[] stars;
-    private double[] planetProjectedPosition;
+    private static final double MIN_CELL_SIZE = 1e-3;
+
+    private final ProjectedSky projected;
+    private final double canvasScale;
+    private final double canvasWidth;
+    private final double canvasHeight;
+    private final boolean placedOnCanvas;
+    // Placed on the canvas the first time they are asked for, if the projected sky wasn't placed on the same one
+    private float[] starCanvasPosition;
+    private byte[] starFlags;
+    private float[] pulsarCanvasPosition;
+    private byte[] pulsarFlags;
+    // All the objects and their positions, built at the first query
+    private CelestialObject[] allObjects;
+    private ProjectedGrid grid;
 
+    /**
+     * Observe the whole sky
+     *
+     * @param when       the date and time of the observation
+     * @param where      the location of the observer
+     * @param projection the projection to use
+     * @param catalogue  the catalogue of the stars and pulsars
+     */
     public ObservedSky(ZonedDateTime when, GeographicCoordinates where, StereographicProjection projection, StarCatalogue catalogue) {
-        this.catalogue = catalogue;
-        pulsars = new Pulsar[catalogue.pulsars().size()];
-        pulsarProjectedPosition = new double[pulsars.length * 2];
-        stars = new Star[catalogue.stars().size()];
-        starsPosition = new double[stars.length * 2];
-        planetList = new Planet[PlanetModel.ALL.size() - 1];
-        planetProjectedPosition = new double[planetList.length * 2];
-
-        EclipticToEquatorialConversion ecltoEq = new EclipticToEquatorialConversion(when);
-        double daysSinceJ2010 = Epoch.J2010.daysUntil(when);
-
-        EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(when);
-        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(when, where);
-
-        Function<EclipticCoordinates, HorizontalCoordinates> eclToHor = eclToEqu.andThen(equToHor);
-
-        sun = SunModel.SUN.at(daysSinceJ2010, ecltoEq);
-        sunProjectedPosition = projection.apply(eclToHor.apply(sun.eclipticPos()));
-        all.put(sun, sunProjectedPosition);
-
-        moon = MoonModel.MOON.at(daysSinceJ2010, ecltoEq);
-        moonProjectedPosition = projection.apply(equToHor.apply(moon.equatorialPos()));
-        all.put(moon, moonProjectedPosition);
-
-        List<Planet> planetTransi = new ArrayList<>();
-        for (PlanetModel planet : PlanetModel.values()) {
-            if (planet != PlanetModel.EARTH) {
-                planetTransi.add(planet.at(daysSinceJ2010, ecltoEq));
-            }
-        }
-        for (int i = 0; i < planetTransi.size(); i++) {
-            planetList[i] = planetTransi.get(i);
-        }
+        this(when, where, projection, catalogue, Math.PI);
+    }
 
-        for (int j = 0; j < planetList.length; j++) {
-            CartesianCoordinates projectedPosition = projection.apply(equToHor.apply(planetList[j].equatorialPos()));
-            planetProjectedPosition[2 * j] = projectedPosition.x();
-            planetProjectedPosition[(2 * j) + 1] = projectedPosition.y();
-            all.put(planetList[j], projectedPosition);
-        }
+    /**
+     * Observe the part of the sky around the center of the projection (see ProjectedSky)
+     *
+     * @param when       the date and time of the observation
+     * @param where      the location of the observer
+     * @param projection the projection to use
+     * @param catalogue  the catalogue of the stars and pulsars
+     * @param viewRadius the angular radius of the view cone around the center of the projection, in radian
+     *                   (at least Math.PI for the whole sky)
+     * @throws IllegalArgumentException if viewRadius is negative
+     */
+    public ObservedSky(ZonedDateTime when, GeographicCoordinates where, StereographicProjection projection, StarCatalogue catalogue, double viewRadius) {
+        this(when, where, projection, catalogue, viewRadius, 1, 0, 0);
+    }
 
-        for (Star star : catalogue.stars()) {
-            stars[catalogue.stars().indexOf(star)] = star;
-        }
-        for (int i = 0; i < stars.length; i++) {
-            CartesianCoordinates projectedPosition = projection.apply(equToHor.apply(stars[i].equatorialPos()));
-            starsPosition[2 * i] = projectedPosition.x();
-            starsPosition[(2 * i) + 1] = projectedPosition.y();
-            all.put(stars[i], projectedPosition);
-        }
+    /**
+     * Observe the part of the sky around the center of the projection, also placing the stars and pulsars on the
+     * canvas on which they are drawn (see EquatorialToCanvasKernel)
+     *
+     * @param when         the date and time of the observation
+     * @param where        the location of the observer
+     * @param projection   the projection to use
+     * @param catalogue    the catalogue of the stars and pulsars
+     * @param viewRadius   the angular radius of the view cone around the center of the projection, in radian
+     *                     (at least Math.PI for the whole sky)
+     * @param canvasScale  the dilatation from the plane of the projection to the canvas
+     * @param canvasWidth  the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     * @throws IllegalArgumentException if viewRadius is negative, if canvasScale isn't strictly positive or if the
+     *                                  size of the canvas is negative
+     */
+    public ObservedSky(ZonedDateTime when, GeographicCoordinates where, StereographicProjection projection, StarCatalogue catalogue,
+                       double viewRadius, double canvasScale, double canvasWidth, double canvasHeight) {
+        this(new ProjectedSky(new Ephemerides(when), new EquatorialToHorizontalConversion(when, where), projection, catalogue,
+                viewRadius, canvasScale, canvasWidth, canvasHeight), canvasScale, canvasWidth, canvasHeight);
+    }
 
-        for (Pulsar p : catalogue.pulsars()) {
-            pulsars[catalogue.pulsars().indexOf(p)] = p ;
-        }
+    /**
+     * Place a projected sky on a canvas. The positions of the projected sky are shared, and the ones on the canvas
+     * too if it was placed on the same canvas : only a zoom or a resize of the canvas recomputes them, which doesn't
+     * involve any rotation. Each layer is only computed the first time one of its objects or positions is asked for
+     *
+     * @param projected    the positions of the objects in the plane of the projection
+     * @param canvasScale  the dilatation from the plane of the projection to the canvas
+     * @param canvasWidth  the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     * @throws IllegalArgumentException if canvasScale isn't strictly positive or if the size of the canvas is negative
+     */
+    public ObservedSky(ProjectedSky projected, double canvasScale, double canvasWidth, double canvasHeight) {
+        Preconditions.checkArgument(canvasScale > 0 && canvasWidth >= 0 && canvasHeight >= 0);
+        this.projected = projected;
+        this.canvasScale = canvasScale;
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        placedOnCanvas = projected.isPlacedOn(canvasScale, canvasWidth, canvasHeight);
+    }
 
-        for (int i = 0; i < pulsars.length; i++) {
-            CartesianCoordinates projectedPosition = projection.apply(equToHor.apply(pulsars[i].equatorialPos()));
-            pulsarProjectedPosition[2 * i] = projectedPosition.x();
-            pulsarProjectedPosition[(2 * i)+1] = projectedPosition.y();
-            all.put(pulsars[i], projectedPosition);
+    /**
+     * Compute all the layers of the observation now, instead of the first time they are asked for, so that the sky
+     * can be observed on another thread than the one drawing it
+     *
+     * @return this observed sky
+     */
+    public ObservedSky computeLayers() {
+        sunPosition();
+        starFlags();
+        pulsarFlags();
+        for (Asterism asterism : usedAsterism()) {
+            usedIndex(asterism);
         }
+        return this;
+    }
+
+    /**
+     * Compute all the layers of the observation now, and index the objects for the queries of objectClosestTo(), so
+     * that the first query made by the thread drawing the sky doesn't have to
+     *
+     * @param pickRadius the radius of the queries expected from objectClosestTo()
+     * @return this observed sky
+     * @throws IllegalArgumentException if pickRadius is negative
+     */
+    public ObservedSky computeLayers(double pickRadius) {
+        Preconditions.checkArgument(pickRadius >= 0);
+        computeLayers();
+        grid(pickRadius);
+        return this;
     }
 
+    /**
+     * @return the sun, null if the solar system isn't observed
+     */
     public Sun sun() {
-        return sun;
+        return projected.hasLayer(SkyLayer.SOLAR_SYSTEM) ? projected.ephemerides().sun() : null;
     }
 
+    /**
+     * @return the moon, null if the solar system isn't observed
+     */
     public Moon moon() {
-        return moon;
+        return projected.hasLayer(SkyLayer.SOLAR_SYSTEM) ? projected.ephemerides().moon() : null;
     }
 
     public Planet[] planets() {
-        return planetList;
+        return projected.hasLayer(SkyLayer.SOLAR_SYSTEM) ? projected.ephemerides().planets() : new Planet[0];
     }
 
     public Star[] stars() {
-        return stars;
+        return projected.stars();
     }
 
     public Pulsar[] pulsars() {
-        return pulsars;
+        return projected.pulsars();
+    }
+
+    /**
+     * @return the catalogue of the observed stars and pulsars, in which starIndices() and pulsarIndices() are given
+     */
+    public StarCatalogue catalogue() {
+        return projected.catalogue();
+    }
+
+    /**
+     * @return the catalogue index of each observed star, in the order of stars() (must not be modified)
+     */
+    public int[] starIndices() {
+        return projected.starIndices();
+    }
+
+    /**
+     * @return the catalogue index of each observed pulsar, in the order of pulsars() (must not be modified)
+     */
+    public int[] pulsarIndices() {
+        return projected.pulsarIndices();
     }
 
+    /**
+     * @return the position of the sun, null if the solar system isn't observed
+     */
     public CartesianCoordinates sunPosition() {
-        return sunProjectedPosition;
+        return projected.sunPosition();
     }
 
+    /**
+     * @return the position of the moon, null if the solar system isn't observed
+     */
     public CartesianCoordinates moonPosition() {
-        return moonProjectedPosition;
+        return projected.moonPosition();
     }
 
     public double[] planetPosition() {
-        return planetProjectedPosition;
+        return projected.planetPosition();
     }
 
     public double[] starPosition() {
-        return starsPosition;
+        return projected.starPosition();
     }
 
     public double[] pulsarPosition() {
-        return pulsarProjectedPosition;
+        return projected.pulsarPosition();
+    }
+
+    /**
+     * @return the positions of the stars on the canvas, as successive x and y coordinates in the order of stars()
+     */
+    public float[] starCanvasPosition() {
+        placeStars();
+        return starCanvasPosition;
+    }
+
+    /**
+     * @return the flags of the stars in the order of stars() (see EquatorialToCanvasKernel)
+     */
+    public byte[] starFlags() {
+        placeStars();
+        return starFlags;
+    }
+
+    /**
+     * @return the positions of the pulsars on the canvas, as successive x and y coordinates in the order of pulsars()
+     */
+    public float[] pulsarCanvasPosition() {
+        placePulsars();
+        return pulsarCanvasPosition;
+    }
+
+    /**
+     * @return the flags of the pulsars in the order of pulsars() (see EquatorialToCanvasKernel)
+     */
+    public byte[] pulsarFlags() {
+        placePulsars();
+        return pulsarFlags;
+    }
+
+    private void placeStars() {
+        if (starFlags == null) {
+            if (placedOnCanvas) {
+                starCanvasPosition = projected.starCanvasPosition();
+                starFlags = projected.starFlags();
+            } else {
+                int count = projected.stars().length;
+                starCanvasPosition = new float[count * 2];
+                byte[] flags = new byte[count];
+                EquatorialToCanvasKernel.placeOnCanvas(projected.starPosition(), projected.starFlags(), canvasScale,
+                        canvasWidth, canvasHeight, starCanvasPosition, flags);
+                starFlags = flags;
+            }
+        }
+    }
+
+    private void placePulsars() {
+        if (pulsarFlags == null) {
+            if (placedOnCanvas) {
+                pulsarCanvasPosition = projected.pulsarCanvasPosition();
+                pulsarFlags = projected.pulsarFlags();
+            } else {
+                int count = projected.pulsars().length;
+                pulsarCanvasPosition = new float[count * 2];
+                byte[] flags = new byte[count];
+                EquatorialToCanvasKernel.placeOnCanvas(projected.pulsarPosition(), projected.pulsarFlags(), canvasScale,
+                        canvasWidth, canvasHeight, pulsarCanvasPosition, flags);
+                pulsarFlags = flags;
+            }
+        }
     }
 
+    /**
+     * @return the asterisms of the catalogue, none if the asterisms aren't observed
+     */
     public Set<Asterism> usedAsterism() {
-        return catalogue.asterisms();
+        return projected.hasLayer(SkyLayer.ASTERISMS) && projected.hasLayer(SkyLayer.STARS)
+                ? projected.catalogue().asterisms()
+                : Set.of();
     }
 
+    /**
+     * @param asterism an asterism of the catalogue
+     * @return the indices in stars() of the stars of the asterism
+     * @throws IllegalArgumentException if the asterism isn't observed
+     */
     public List<Integer> usedIndex(Asterism asterism) {
-        return catalogue.asterismIndices(asterism);
+        List<Integer> indices = projected.asterismIndices(asterism);
+        Preconditions.checkArgument(indices != null);
+        return indices;
+    }
+
+    /**
+     * The lines of all the asterisms, to be drawn at once with starCanvasPosition()
+     *
+     * @return the indices in stars() of the ends of the segments of the asterisms, two by two, none if the asterisms
+     * aren't observed (must not be modified)
+     */
+    public int[] asterismSegments() {
+        return projected.asterismSegments();
     }
 
+    /**
+     * @return all the observed objects
+     */
     public Set<CelestialObject> allCO() {
-        return all.keySet();
+        return new LinkedHashSet<>(Arrays.asList(allObjects()));
     }
 
+    /**
+     * Find the closest object to the given position. The objects are indexed by a grid at the first query,
+     * with cells of the size of its radius, unless computeLayers(double) already did
+     *
+     * @param position the position in the plane of the projection
+     * @param radius   the maximal distance to the position
+     * @return the closest object at a distance lower or equal to radius, if any
+     * @throws IllegalArgumentException if radius is negative
+     */
     public Optional<CelestialObject> objectClosestTo(CartesianCoordinates position, double radius) {
         Preconditions.checkArgument(radius >= 0);
-        Optional<CelestialObject> closest = Optional.empty();
-        Circle circle = new Circle(position.x(), position.y(), radius);
-        for (Map.Entry<CelestialObject, CartesianCoordinates> entry : all.entrySet()) {
-            double x = entry.getValue().x();
-            double y = entry.getValue().y();
-            if(circle.contains(x, y)){
-                closest = Optional.of(entry.getKey());
-                circle.setRadius(sqrt(pow(x - position.x(), 2) + pow(y - position.y(), 2)));
+        int closest = grid(radius).closestTo(position.x(), position.y(), radius);
+        return closest < 0 ? Optional.empty() : Optional.of(allObjects()[closest]);
+    }
+
+    private ProjectedGrid grid(double radius) {
+        if (grid == null) {
+            grid = new ProjectedGrid(allPositions(), radius > 0 ? radius : MIN_CELL_SIZE);
+        }
+        return grid;
+    }
+
+    /**
+     * @return the sun, the moon, the planets, the stars and the pulsars of the observed layers, in this order
+     */
+    private CelestialObject[] allObjects() {
+        if (allObjects == null) {
+            List<CelestialObject> objects = new ArrayList<>(2 + planets().length + stars().length + pulsars().length);
+            if (projected.hasLayer(SkyLayer.SOLAR_SYSTEM)) {
+                objects.add(sun());
+                objects.add(moon());
             }
+            objects.addAll(Arrays.asList(planets()));
+            objects.addAll(Arrays.asList(stars()));
+            objects.addAll(Arrays.asList(pulsars()));
+            allObjects = objects.toArray(new CelestialObject[0]);
+        }
+        return allObjects;
+    }
+
+    /**
+     * @return the positions of the objects of allObjects(), as successive x and y coordinates
+     */
+    private double[] allPositions() {
+        double[] positions = new double[2 * allObjects().length];
+        int offset = 0;
+        if (projected.hasLayer(SkyLayer.SOLAR_SYSTEM)) {
+            positions[0] = sunPosition().x();
+            positions[1] = sunPosition().y();
+            positions[2] = moonPosition().x();
+            positions[3] = moonPosition().y();
+            offset = 4;
+        }
+        for (double[] objectPositions : List.of(planetPosition(), starPosition(), pulsarPosition())) {
+            System.arraycopy(objectPositions, 0, positions, offset, objectPositions.length);
+            offset += objectPositions.length;
         }
-        return closest;
+        return positions;
     }
 }
@@ -1,5 +1,6 @@
 package ch.epfl.rigel.astronomy;
 
+import ch.epfl.rigel.Preconditions;
 import ch.epfl.rigel.coordinates.EclipticCoordinates;
 import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
 import ch.epfl.rigel.coordinates.EquatorialCoordinates;
@@ -50,6 +51,12 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
     private final double V_0;
     private static final double DAY = 365.242191;
     public final static List<PlanetModel> ALL = Arrays.asList(PlanetModel.values());
+    /**
+     * The planets other than the earth, in the order of PlanetModel
+     */
+    public final static List<PlanetModel> OTHERS = List.of(MERCURY, VENUS, MARS, JUPITER, SATURN, URANUS, NEPTUNE);
+    public final static int OTHERS_COUNT = OTHERS.size();
+    private static final int STATE_SIZE = 4;
 
     /**
      * Construct a planet with the following parameters
@@ -94,47 +101,141 @@ public enum PlanetModel implements CelestialObjectModel<Planet> {
         if (this == EARTH) {
             return new Planet(name, EquatorialCoordinates.of(0, 0), 0, 0,0,0,0,0);
         } else {
-            double M = (Angle.TAU / DAY) * (daysSinceJ2010 / TP) + EPSILON - S_OMEGA;
-            double v = M + 2 * e * sin(M);
-
-            double r = a * (1 - e * e) / (1 + e * cos(v));
-            double l = v + S_OMEGA;
-            double p = sin(l-B_OMEGA);
-            double o = cos(l-B_OMEGA);
-            double phi = Math.asin(p * sinI);
-            double rp = r * cos(phi);
-            double lp = Math.atan2(p * cosI, o) + B_OMEGA;
-
-            double MEarth = ((Angle.TAU / DAY) * (daysSinceJ2010 / EARTH.TP)) + EARTH.EPSILON - EARTH.S_OMEGA;
-            double vEarth = MEarth + 2 * EARTH.e * sin(MEarth);
-            double R = EARTH.a * (1 - EARTH.e * EARTH.e) / (1 + EARTH.e * cos(vEarth));
-            double L = vEarth + EARTH.S_OMEGA;
-
-            double RHO = Math.sqrt((R * R + r * r) - (2 * R * r * cos(l - L) * cos(phi)));
-            double lambda = 0;
-
-            double omega = R * sin(lp - L);
-            switch (this) {
-                case MERCURY:
-                case VENUS:
-                    lambda = Angle.normalizePositive(Math.PI + L + Math.atan(rp * sin(L - lp) / (R - rp * cos(L - lp))));
-                    break;
-
-                case MARS:
-                case JUPITER:
-                case SATURN:
-                case URANUS:
-                case NEPTUNE:
-                    lambda = Angle.normalizePositive(lp + Math.atan2(omega, (rp - R * cos(lp - L))));
-                    break;
-            }
-
-            double beta = Math.atan(rp * Math.tan(phi) * sin(lambda - lp) / (omega));
-
-            double F1 = (1 + cos(lambda - l)) / 2;
-            double m1 = V_0 + 5 * Math.log10(r * RHO / Math.sqrt(F1));
-
-            return new Planet(name, eclipticToEquatorialConversion.apply(EclipticCoordinates.of(lambda, beta)), (float) (THETA_0 / RHO), (float) m1,0,0,0,0);
+            double vEarth = EARTH.trueAnomaly(daysSinceJ2010);
+            double[] state = new double[STATE_SIZE];
+            geocentricState(daysSinceJ2010, vEarth + EARTH.S_OMEGA, EARTH.radius(vEarth), state, 0);
+
+            return new Planet(name, eclipticToEquatorialConversion.apply(EclipticCoordinates.of(state[0], state[1])),
+                    (float) state[2], (float) state[3],0,0,0,0);
+        }
+    }
+
+    /**
+     * Compute the positions of all the planets other than the earth at a given moment, the heliocentric position of
+     * the earth being only computed once. The planets are written in the order of PlanetModel, so the planet p (in this
+     * order, the earth excluded) has the index p in the arrays
+     *
+     * @param daysSinceJ2010                 the number of days between J2010 and the moment
+     * @param eclipticToEquatorialConversion the conversion of the moment
+     * @param raDec                          the array receiving the right ascension and the declination of the planet p
+     *                                       at the indices 2 * p and 2 * p + 1, in radian
+     * @param angularSize                    the array receiving the angular size of the planet p at the index p
+     * @param magnitude                      the array receiving the magnitude of the planet p at the index p
+     * @throws IllegalArgumentException if the arrays are too small
+     */
+    public static void othersAt(double daysSinceJ2010, EclipticToEquatorialConversion eclipticToEquatorialConversion,
+                                double[] raDec, float[] angularSize, float[] magnitude) {
+        checkOutputs(OTHERS_COUNT, raDec, angularSize, magnitude);
+        othersAt(daysSinceJ2010, eclipticToEquatorialConversion, raDec, angularSize, magnitude, 0, new double[STATE_SIZE]);
+    }
+
+    /**
+     * Compute the positions of all the planets other than the earth at each of the given moments, for instance to
+     * scan a range of dates. The planets of a moment are written one after the other, in the order of PlanetModel, so
+     * the planet p (in this order, the earth excluded) of the moment m has the index i = m * OTHERS_COUNT + p in the
+     * arrays
+     *
+     * @param daysSinceJ2010 the number of days between J2010 and each moment
+     * @param raDec          the array receiving the right ascension and the declination of the planet i at the indices
+     *                       2 * i and 2 * i + 1, in radian
+     * @param angularSize    the array receiving the angular size of the planet i at the index i
+     * @param magnitude      the array receiving the magnitude of the planet i at the index i
+     * @throws IllegalArgumentException if the arrays are too small for the number of moments
+     */
+    public static void othersAt(double[] daysSinceJ2010, double[] raDec, float[] angularSize, float[] magnitude) {
+        checkOutputs(daysSinceJ2010.length * OTHERS_COUNT, raDec, angularSize, magnitude);
+        double[] state = new double[STATE_SIZE];
+        for (int m = 0; m < daysSinceJ2010.length; m++) {
+            double days = daysSinceJ2010[m];
+            EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(Epoch.J2000.julianCenturiesUntil(days + Epoch.J2010.julianTime()));
+            othersAt(days, eclToEqu, raDec, angularSize, magnitude, m * OTHERS_COUNT, state);
+        }
+    }
+
+    private static void checkOutputs(int count, double[] raDec, float[] angularSize, float[] magnitude) {
+        Preconditions.checkArgument(raDec.length >= 2 * count && angularSize.length >= count && magnitude.length >= count);
+    }
+
+    private static void othersAt(double daysSinceJ2010, EclipticToEquatorialConversion eclToEqu, double[] raDec,
+                                 float[] angularSize, float[] magnitude, int first, double[] state) {
+        double vEarth = EARTH.trueAnomaly(daysSinceJ2010);
+        double earthLon = vEarth + EARTH.S_OMEGA;
+        double earthRadius = EARTH.radius(vEarth);
+
+        int i = first;
+        for (PlanetModel planet : OTHERS) {
+            planet.geocentricState(daysSinceJ2010, earthLon, earthRadius, state, 0);
+            eclToEqu.apply(state[0], state[1], raDec, 2 * i);
+            angularSize[i] = (float) state[2];
+            magnitude[i] = (float) state[3];
+            i++;
+        }
+    }
+
+    /**
+     * @return the name of the planet (in french)
+     */
+    public String getName() {
+        return name;
+    }
+
+    private double trueAnomaly(double daysSinceJ2010) {
+        double M = (Angle.TAU / DAY) * (daysSinceJ2010 / TP) + EPSILON - S_OMEGA;
+        return M + 2 * e * sin(M);
+    }
+
+    private double radius(double trueAnomaly) {
+        return a * (1 - e * e) / (1 + e * cos(trueAnomaly));
+    }
+
+    /**
+     * Compute the geocentric state of this planet, other than the earth
+     *
+     * @param daysSinceJ2010 the number of days between J2010 and the moment
+     * @param L              the heliocentric longitude of the earth at the moment
+     * @param R              the distance from the earth to the sun at the moment
+     * @param state          the array receiving the ecliptic longitude and latitude, the angular size and the
+     *                       magnitude of the planet, from the index offset
+     * @param offset         the index of the first value in state
+     */
+    private void geocentricState(double daysSinceJ2010, double L, double R, double[] state, int offset) {
+        double v = trueAnomaly(daysSinceJ2010);
+
+        double r = radius(v);
+        double l = v + S_OMEGA;
+        double p = sin(l-B_OMEGA);
+        double o = cos(l-B_OMEGA);
+        double phi = Math.asin(p * sinI);
+        double rp = r * cos(phi);
+        double lp = Math.atan2(p * cosI, o) + B_OMEGA;
+
+        double RHO = Math.sqrt((R * R + r * r) - (2 * R * r * cos(l - L) * cos(phi)));
+        double lambda = 0;
+
+        double omega = R * sin(lp - L);
+        switch (this) {
+            case MERCURY:
+            case VENUS:
+                lambda = Angle.normalizePositive(Math.PI + L + Math.atan(rp * sin(L - lp) / (R - rp * cos(L - lp))));
+                break;
+
+            case MARS:
+            case JUPITER:
+            case SATURN:
+            case URANUS:
+            case NEPTUNE:
+                lambda = Angle.normalizePositive(lp + Math.atan2(omega, (rp - R * cos(lp - L))));
+                break;
         }
+
+        double beta = Math.atan(rp * Math.tan(phi) * sin(lambda - lp) / (omega));
+
+        double F1 = (1 + cos(lambda - l)) / 2;
+        double m1 = V_0 + 5 * Math.log10(r * RHO / Math.sqrt(F1));
+
+        state[offset] = lambda;
+        state[offset + 1] = beta;
+        state[offset + 2] = THETA_0 / RHO;
+        state[offset + 3] = m1;
     }
-}
\ No newline at end of file
+}
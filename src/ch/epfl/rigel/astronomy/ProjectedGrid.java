@@ -0,0 +1,138 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over projected positions, answering nearest-object queries by looking only at the cells
+ * around the queried point. The cells are not allocated : the objects are sorted by cell, and the objects
+ * of a column of cells are found with a binary search.
+ * <p>
+ * The cell and the index of an object are packed in a long : 16 bits per cell coordinate and 31 bits for the index,
+ * so that any array of positions can be indexed. The grid is 2^16 cells wide, the cells further from the origin being
+ * merged in the border cells.
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class ProjectedGrid {
+
+    private static final int INDEX_BITS = 31;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int CELL_BITS = 16;
+    private static final long CELL_OFFSET = 1L << (CELL_BITS - 1);
+    private static final int MAX_COLUMNS = 64;
+
+    private final double[] positions;
+    private final double cellSize;
+    // (cell x, cell y, index) packed and sorted
+    private final long[] keys;
+
+    /**
+     * Index the given positions
+     *
+     * @param positions the positions of the objects, as successive x and y coordinates
+     * @param cellSize  the width of the cells, best chosen close to the radius of the queries
+     * @throws IllegalArgumentException if cellSize isn't strictly positive
+     */
+    ProjectedGrid(double[] positions, double cellSize) {
+        Preconditions.checkArgument(cellSize > 0);
+        this.positions = positions;
+        this.cellSize = cellSize;
+
+        long[] keys = new long[positions.length / 2];
+        int count = 0;
+        for (int i = 0; i < positions.length / 2; i++) {
+            double x = positions[2 * i];
+            double y = positions[2 * i + 1];
+            // The objects projected to infinity or NaN can't be the closest to any point
+            if (Double.isFinite(x) && Double.isFinite(y)) {
+                keys[count++] = (cellKey(cell(x), cell(y)) << INDEX_BITS) | i;
+            }
+        }
+        this.keys = Arrays.copyOf(keys, count);
+        Arrays.sort(this.keys);
+    }
+
+    /**
+     * Find the closest object to the given point
+     *
+     * @param x      the x coordinate of the point
+     * @param y      the y coordinate of the point
+     * @param radius the maximal distance to the point
+     * @return the index of the closest object at a distance lower or equal to radius, -1 if there is none
+     */
+    int closestTo(double x, double y, double radius) {
+        long firstColumn = cell(x - radius);
+        long lastColumn = cell(x + radius);
+        if (lastColumn - firstColumn >= MAX_COLUMNS) {
+            return linearClosestTo(x, y, radius);
+        }
+        long firstRow = cell(y - radius);
+        long lastRow = cell(y + radius);
+
+        int closest = -1;
+        double closestDistance2 = radius * radius;
+        for (long column = firstColumn; column <= lastColumn; column++) {
+            // The cells of a column are contiguous in the sorted keys
+            long from = cellKey(column, firstRow) << INDEX_BITS;
+            long to = (cellKey(column, lastRow) << INDEX_BITS) | INDEX_MASK;
+            for (int k = lowerBound(from); k < keys.length && keys[k] <= to; k++) {
+                int index = (int) (keys[k] & INDEX_MASK);
+                double distance2 = distance2(index, x, y);
+                if (distance2 < closestDistance2 || (distance2 == closestDistance2 && closest == -1)) {
+                    closestDistance2 = distance2;
+                    closest = index;
+                }
+            }
+        }
+        return closest;
+    }
+
+    private int linearClosestTo(double x, double y, double radius) {
+        int closest = -1;
+        double closestDistance2 = radius * radius;
+        for (long key : keys) {
+            int index = (int) (key & INDEX_MASK);
+            double distance2 = distance2(index, x, y);
+            if (distance2 < closestDistance2 || (distance2 == closestDistance2 && closest == -1)) {
+                closestDistance2 = distance2;
+                closest = index;
+            }
+        }
+        return closest;
+    }
+
+    private double distance2(int index, double x, double y) {
+        double dx = positions[2 * index] - x;
+        double dy = positions[2 * index + 1] - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The cells far from the origin are merged in the border cells, which stay correct as the distances
+     * are always checked
+     */
+    private long cell(double coordinate) {
+        double cell = Math.floor(coordinate / cellSize);
+        return (long) Math.max(-CELL_OFFSET, Math.min(CELL_OFFSET - 1, cell));
+    }
+
+    private static long cellKey(long column, long row) {
+        return ((column + CELL_OFFSET) << CELL_BITS) | (row + CELL_OFFSET);
+    }
+}
@@ -0,0 +1,385 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.Preconditions;
+import ch.epfl.rigel.coordinates.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Positions of the observed objects in the plane of a stereographic projection, for a given observer. This is
+ * the expensive part of an observation : it only has to be recomputed when the moment, the observer, the center of
+ * the projection or the view cone change, while a zoom only changes the ObservedSky built from it.
+ * The objects are observed by layers (see SkyLayer), each one computed the first time it is asked for and then kept.
+ * A projected sky can be shared by the skies observed on several threads, so the layers are computed under its lock
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class ProjectedSky {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int CHUNK_ALIGNMENT = 64;
+
+    /**
+     * The positions of the sun, the moon and the planets
+     */
+    private static final class SolarSystem {
+        private final CartesianCoordinates sunPosition;
+        private final CartesianCoordinates moonPosition;
+        private final double[] planetPosition;
+
+        private SolarSystem(CartesianCoordinates sunPosition, CartesianCoordinates moonPosition, double[] planetPosition) {
+            this.sunPosition = sunPosition;
+            this.moonPosition = moonPosition;
+            this.planetPosition = planetPosition;
+        }
+    }
+
+    /**
+     * The observed objects of a layer of the catalogue, with their catalogue indices and their positions
+     */
+    private static final class ObjectLayer<T> {
+        private final T[] objects;
+        private final int[] indices;
+        private final double[] position;
+        private final float[] canvasPosition;
+        private final byte[] flags;
+
+        private ObjectLayer(T[] objects, int[] indices) {
+            this.objects = objects;
+            this.indices = indices;
+            position = new double[objects.length * 2];
+            canvasPosition = new float[objects.length * 2];
+            flags = new byte[objects.length];
+        }
+    }
+
+    private static final int[] NO_SEGMENTS = new int[0];
+
+    private final StarCatalogue catalogue;
+    private final Ephemerides ephemerides;
+    private final EquatorialToHorizontalConversion equToHor;
+    private final StereographicProjection projection;
+    private final Set<SkyLayer> layers;
+    private final double viewRadius;
+    private final boolean wholeSky;
+    private final double canvasScale;
+    private final double canvasWidth;
+    private final double canvasHeight;
+    private final EquatorialToCanvasKernel kernel;
+
+    // Computed the first time they are asked for
+    private SolarSystem solarSystem;
+    private ObjectLayer<Star> starLayer;
+    private ObjectLayer<Pulsar> pulsarLayer;
+    private Map<Asterism, List<Integer>> asterismGeometry;
+
+    /**
+     * Project the objects of all the layers (see the constructor with layers)
+     *
+     * @throws IllegalArgumentException if viewRadius is negative, if canvasScale isn't strictly positive or if the
+     *                                  size of the canvas is negative
+     */
+    public ProjectedSky(Ephemerides ephemerides, EquatorialToHorizontalConversion equToHor, StereographicProjection projection,
+                        StarCatalogue catalogue, double viewRadius, double canvasScale, double canvasWidth, double canvasHeight) {
+        this(ephemerides, equToHor, projection, catalogue, EnumSet.allOf(SkyLayer.class), viewRadius, canvasScale, canvasWidth, canvasHeight);
+    }
+
+    /**
+     * Project the objects of the view cone around the center of the projection. The stars and pulsars are looked up
+     * in the tiles of the catalogue crossing the cone, so some objects slightly outside of it are kept too. The stars
+     * of the asterisms are always observed, so that the asterisms crossing the border can be drawn.
+     * The stars and pulsars are also placed on the given canvas, which the ObservedSky built for the same canvas reuses.
+     * No layer is computed by the constructor
+     *
+     * @param ephemerides  the positions of the sun, the moon and the planets at the moment of the observation
+     * @param equToHor     the conversion of the moment and location of the observation
+     * @param projection   the projection to use
+     * @param catalogue    the catalogue of the stars and pulsars
+     * @param layers       the layers that can be observed, the objects of the other ones being left out
+     * @param viewRadius   the angular radius of the view cone around the center of the projection, in radian
+     *                     (at least Math.PI for the whole sky)
+     * @param canvasScale  the dilatation from the plane of the projection to the canvas
+     * @param canvasWidth  the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     * @throws IllegalArgumentException if viewRadius is negative, if canvasScale isn't strictly positive or if the
+     *                                  size of the canvas is negative
+     */
+    public ProjectedSky(Ephemerides ephemerides, EquatorialToHorizontalConversion equToHor, StereographicProjection projection,
+                        StarCatalogue catalogue, Set<SkyLayer> layers, double viewRadius,
+                        double canvasScale, double canvasWidth, double canvasHeight) {
+        Preconditions.checkArgument(viewRadius >= 0);
+        kernel = new EquatorialToCanvasKernel(equToHor, projection, canvasScale, canvasWidth, canvasHeight);
+        this.catalogue = catalogue;
+        this.ephemerides = ephemerides;
+        this.equToHor = equToHor;
+        this.projection = projection;
+        this.layers = layers.isEmpty() ? EnumSet.noneOf(SkyLayer.class) : EnumSet.copyOf(layers);
+        this.viewRadius = viewRadius;
+        this.canvasScale = canvasScale;
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        wholeSky = viewRadius >= Math.PI;
+    }
+
+    private synchronized SolarSystem solarSystem() {
+        if (solarSystem == null) {
+            if (!layers.contains(SkyLayer.SOLAR_SYSTEM)) {
+                solarSystem = new SolarSystem(null, null, new double[0]);
+            } else {
+                Planet[] planets = ephemerides.planets();
+                double[] planetPosition = new double[planets.length * 2];
+                for (int j = 0; j < planets.length; j++) {
+                    CartesianCoordinates projectedPosition = projection.apply(equToHor.apply(planets[j].equatorialPos()));
+                    planetPosition[2 * j] = projectedPosition.x();
+                    planetPosition[(2 * j) + 1] = projectedPosition.y();
+                }
+                solarSystem = new SolarSystem(projection.apply(equToHor.apply(ephemerides.sun().equatorialPos())),
+                        projection.apply(equToHor.apply(ephemerides.moon().equatorialPos())), planetPosition);
+            }
+        }
+        return solarSystem;
+    }
+
+    private synchronized ObjectLayer<Star> starLayer() {
+        if (starLayer == null) {
+            if (!layers.contains(SkyLayer.STARS)) {
+                starLayer = new ObjectLayer<>(new Star[0], new int[0]);
+            } else if (wholeSky) {
+                starLayer = new ObjectLayer<>(catalogue.starArray(), catalogue.starTiling().indicesWithin(0, 0, viewRadius));
+            } else {
+                EquatorialCoordinates center = center();
+                int[] indices = withAsterismStarsFirst(
+                        catalogue.starTiling().indicesWithin(center.ra(), center.dec(), viewRadius),
+                        catalogue.asterismStarIndices());
+                Star[] stars = new Star[indices.length];
+                for (int i = 0; i < indices.length; i++) {
+                    stars[i] = catalogue.starArray()[indices[i]];
+                }
+                starLayer = new ObjectLayer<>(stars, indices);
+            }
+            boolean allStars = wholeSky && layers.contains(SkyLayer.STARS);
+            StarColumns columns = catalogue.starColumns();
+            mapUnitVectors(kernel, gather(columns.unitX(), starLayer.indices, allStars),
+                    gather(columns.unitY(), starLayer.indices, allStars), gather(columns.unitZ(), starLayer.indices, allStars),
+                    starLayer.position, starLayer.canvasPosition, starLayer.flags);
+        }
+        return starLayer;
+    }
+
+    private synchronized ObjectLayer<Pulsar> pulsarLayer() {
+        if (pulsarLayer == null) {
+            if (!layers.contains(SkyLayer.PULSARS)) {
+                pulsarLayer = new ObjectLayer<>(new Pulsar[0], new int[0]);
+            } else if (wholeSky) {
+                pulsarLayer = new ObjectLayer<>(catalogue.pulsarArray(), catalogue.pulsarTiling().indicesWithin(0, 0, viewRadius));
+            } else {
+                EquatorialCoordinates center = center();
+                int[] indices = catalogue.pulsarTiling().indicesWithin(center.ra(), center.dec(), viewRadius);
+                Pulsar[] pulsars = new Pulsar[indices.length];
+                for (int i = 0; i < indices.length; i++) {
+                    pulsars[i] = catalogue.pulsarArray()[indices[i]];
+                }
+                pulsarLayer = new ObjectLayer<>(pulsars, indices);
+            }
+            boolean allPulsars = wholeSky && layers.contains(SkyLayer.PULSARS);
+            double[][] vectors = catalogue.pulsarUnitVectors();
+            mapUnitVectors(kernel, gather(vectors[0], pulsarLayer.indices, allPulsars),
+                    gather(vectors[1], pulsarLayer.indices, allPulsars), gather(vectors[2], pulsarLayer.indices, allPulsars),
+                    pulsarLayer.position, pulsarLayer.canvasPosition, pulsarLayer.flags);
+        }
+        return pulsarLayer;
+    }
+
+    /**
+     * @return for each asterism, the indices in stars() of its stars, none if the asterisms aren't observed
+     */
+    private synchronized Map<Asterism, List<Integer>> asterismGeometry() {
+        if (asterismGeometry == null) {
+            asterismGeometry = new HashMap<>();
+            if (layers.contains(SkyLayer.ASTERISMS) && layers.contains(SkyLayer.STARS)) {
+                for (Asterism asterism : catalogue.asterisms()) {
+                    List<Integer> catalogueIndices = catalogue.asterismIndices(asterism);
+                    if (wholeSky) {
+                        asterismGeometry.put(asterism, catalogueIndices);
+                    } else {
+                        // The asterism stars are the first observed stars, in catalogue order
+                        List<Integer> indices = new ArrayList<>(catalogueIndices.size());
+                        for (int index : catalogueIndices) {
+                            indices.add(Arrays.binarySearch(catalogue.asterismStarIndices(), index));
+                        }
+                        asterismGeometry.put(asterism, Collections.unmodifiableList(indices));
+                    }
+                }
+            }
+        }
+        return asterismGeometry;
+    }
+
+    /**
+     * @return the center of the projection, in equatorial coordinates
+     */
+    private EquatorialCoordinates center() {
+        return equToHor.inverseApply(projection.inverseApply(CartesianCoordinates.of(0, 0)));
+    }
+
+    /**
+     * Map the unit vectors with the kernel, sequentially below 2 * PARALLEL_THRESHOLD objects. Above, the vectors are
+     * split in ranges of at least PARALLEL_THRESHOLD objects, computed on the current ForkJoin pool (the common one
+     * outside of any pool), each range writing its own part of the arrays
+     */
+    private static void mapUnitVectors(EquatorialToCanvasKernel kernel, double[] x, double[] y, double[] z,
+                                       double[] planeXY, float[] canvasXY, byte[] flags) {
+        int count = flags.length;
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        int parallelism = pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+        int chunkCount = Math.max(1, Math.min(count / PARALLEL_THRESHOLD, parallelism * CHUNKS_PER_THREAD));
+
+        if (chunkCount == 1) {
+            kernel.applyToUnitVectors(x, y, z, planeXY, canvasXY, flags, 0, count);
+        } else {
+            IntStream.range(0, chunkCount)
+                    .parallel()
+                    .forEach(c -> kernel.applyToUnitVectors(x, y, z, planeXY, canvasXY, flags,
+                            chunkBound(count, c, chunkCount), chunkBound(count, c + 1, chunkCount)));
+        }
+    }
+
+    // The bounds are multiples of CHUNK_ALIGNMENT, so that the chunks don't share any cache line of the flags,
+    // and that the vectorized kernel maps the same objects with its lanes whatever the number of chunks
+    private static int chunkBound(int count, int chunk, int chunkCount) {
+        return chunk == chunkCount ? count : (int) ((long) count * chunk / chunkCount) / CHUNK_ALIGNMENT * CHUNK_ALIGNMENT;
+    }
+
+    /**
+     * @param column   a column of the catalogue
+     * @param indices  the catalogue indices of the observed objects
+     * @param identity true if the observed objects are all the objects of the catalogue, in index order
+     * @return the values of the column for the observed objects
+     */
+    private static double[] gather(double[] column, int[] indices, boolean identity) {
+        if (identity) {
+            return column;
+        }
+        double[] values = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            values[i] = column[indices[i]];
+        }
+        return values;
+    }
+
+    /**
+     * Put the asterism stars first, followed by the other visible stars
+     *
+     * @param visible       the catalogue indices of the visible stars
+     * @param asterismStars the catalogue indices of the asterism stars, in increasing order
+     * @return the catalogue indices of the observed stars
+     */
+    private static int[] withAsterismStarsFirst(int[] visible, int[] asterismStars) {
+        int[] indices = Arrays.copyOf(asterismStars, asterismStars.length + visible.length);
+        int count = asterismStars.length;
+        for (int index : visible) {
+            if (Arrays.binarySearch(asterismStars, index) < 0) {
+                indices[count++] = index;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * @param canvasScale  the dilatation from the plane of the projection to the canvas
+     * @param canvasWidth  the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     * @return true if the stars and pulsars were placed on this canvas
+     */
+    boolean isPlacedOn(double canvasScale, double canvasWidth, double canvasHeight) {
+        return this.canvasScale == canvasScale && this.canvasWidth == canvasWidth && this.canvasHeight == canvasHeight;
+    }
+
+    StarCatalogue catalogue() {
+        return catalogue;
+    }
+
+    Ephemerides ephemerides() {
+        return ephemerides;
+    }
+
+    boolean hasLayer(SkyLayer layer) {
+        return layers.contains(layer);
+    }
+
+    CartesianCoordinates sunPosition() {
+        return solarSystem().sunPosition;
+    }
+
+    CartesianCoordinates moonPosition() {
+        return solarSystem().moonPosition;
+    }
+
+    double[] planetPosition() {
+        return solarSystem().planetPosition;
+    }
+
+    Star[] stars() {
+        return starLayer().objects;
+    }
+
+    Pulsar[] pulsars() {
+        return pulsarLayer().objects;
+    }
+
+    int[] starIndices() {
+        return starLayer().indices;
+    }
+
+    int[] pulsarIndices() {
+        return pulsarLayer().indices;
+    }
+
+    double[] starPosition() {
+        return starLayer().position;
+    }
+
+    double[] pulsarPosition() {
+        return pulsarLayer().position;
+    }
+
+    float[] starCanvasPosition() {
+        return starLayer().canvasPosition;
+    }
+
+    float[] pulsarCanvasPosition() {
+        return pulsarLayer().canvasPosition;
+    }
+
+    byte[] starFlags() {
+        return starLayer().flags;
+    }
+
+    byte[] pulsarFlags() {
+        return pulsarLayer().flags;
+    }
+
+    /**
+     * @return the indices in stars() of the ends of the segments of the asterisms, two by two, none if the asterisms
+     * aren't observed (must not be modified)
+     */
+    int[] asterismSegments() {
+        if (!(layers.contains(SkyLayer.ASTERISMS) && layers.contains(SkyLayer.STARS))) {
+            return NO_SEGMENTS;
+        }
+        // The asterism stars are the first observed stars, in catalogue order, unless the whole catalogue is
+        return wholeSky ? catalogue.asterismSegments() : catalogue.asterismSegmentRanks();
+    }
+
+    /**
+     * @param asterism an asterism of the catalogue
+     * @return the indices in stars() of the stars of the asterism, null if the asterisms aren't observed
+     */
+    List<Integer> asterismIndices(Asterism asterism) {
+        return asterismGeometry().get(asterism);
+    }
+}
@@ -8,11 +8,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 // ------------------------- BONUS ------------------------- \\
 
 public enum PulsarDatabaseLoader implements StarCatalogue.Loader {
-    INSTANCE;
+    INSTANCE(false),
+    PARALLEL(true);
 
     private static final int NAME = 0;
     private static final int RA2000 = 1;
@@ -21,8 +23,18 @@ public enum PulsarDatabaseLoader implements StarCatalogue.Loader {
     private static final int P1 = 4;
     private static final int DIST = 6;
 
+    private final boolean parallel;
+
+    PulsarDatabaseLoader(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     @Override
     public void load(InputStream is, StarCatalogue.Builder b) throws IOException {
+        if (parallel) {
+            loadInParallel(is, b);
+            return;
+        }
 
         try (BufferedReader r = new BufferedReader(new InputStreamReader(is, StandardCharsets.US_ASCII))) {
             String line;
@@ -46,4 +58,29 @@ public enum PulsarDatabaseLoader implements StarCatalogue.Loader {
             }
         }
     }
+
+    private static void loadInParallel(InputStream is, StarCatalogue.Builder b) throws IOException {
+        byte[] bytes;
+        try (InputStream s = is) {
+            bytes = s.readAllBytes();
+        }
+
+        List<Pulsar> pulsars = ChunkedCsvParser.parse(bytes, ';', data -> {
+            String name = data.string(NAME);
+            double radeg = data.doubleValue(RA2000);
+            double decDeg = data.doubleValue(DE2000);
+            double P_0 = data.doubleValue(P0, 0);
+            double P_1 = data.doubleValue(P1, 0);
+            double dist = data.doubleValue(DIST, 0);
+
+            double age = 0.5 * (P_0 / P_1);
+            float magnitude = 15 + (float) Math.random() * (27 - 15);
+
+            return new Pulsar(name, EquatorialCoordinates.of(Angle.normalizePositive(Angle.ofDeg(radeg)), Angle.ofDeg(decDeg)), P_0, P_1, dist, age, magnitude);
+        });
+
+        for (Pulsar pulsar : pulsars) {
+            b.addPulsar(pulsar);
+        }
+    }
 }
@@ -37,6 +37,23 @@ public final class SiderealTime {
         return Angle.normalizePositive(Angle.ofHr(S_g));
     }
 
+    /**
+     * Compute the sidereal time at Greenwich on a given moment, without any allocation
+     *
+     * @param daysSinceJ2000 the given moment (see JulianTime)
+     * @return sidereal time at the moment, on greenwich's meridian
+     */
+    public static double greenwich(double daysSinceJ2000) {
+        double startOfDay = JulianTime.startOfDay(daysSinceJ2000);
+        double T = Epoch.J2000.julianCenturiesUntil(startOfDay);
+        double t = (daysSinceJ2000 - startOfDay) * 24;
+
+        double S_0 = polynomialForS0.at(T);
+        double S_g = S_0 + (constantForLittleT * t);
+
+        return Angle.normalizePositive(Angle.ofHr(S_g));
+    }
+
     /**
      * Compute the local sidereal time at where et when
      *
@@ -47,4 +64,15 @@ public final class SiderealTime {
     public static double local(ZonedDateTime when, GeographicCoordinates where) {
         return Angle.normalizePositive(greenwich(when) + where.lon());
     }
+
+    /**
+     * Compute the local sidereal time at a given moment and place, without any allocation
+     *
+     * @param daysSinceJ2000 the given moment (see JulianTime)
+     * @param where          the given place
+     * @return sidereal time at the moment and at place where, in [0, 2π[
+     */
+    public static double local(double daysSinceJ2000, GeographicCoordinates where) {
+        return Angle.normalizePositive(greenwich(daysSinceJ2000) + where.lon());
+    }
 }
\ No newline at end of file
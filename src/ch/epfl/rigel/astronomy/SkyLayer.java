@@ -0,0 +1,25 @@
+package ch.epfl.rigel.astronomy;
+
+/**
+ * Layers of an observation, each one computed on its own the first time it is asked for (see ProjectedSky)
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public enum SkyLayer {
+    /**
+     * The sun, the moon and the planets
+     */
+    SOLAR_SYSTEM,
+    /**
+     * The stars of the catalogue
+     */
+    STARS,
+    /**
+     * The pulsars of the catalogue
+     */
+    PULSARS,
+    /**
+     * The stars of each asterism, only observed with the stars
+     */
+    ASTERISMS
+}
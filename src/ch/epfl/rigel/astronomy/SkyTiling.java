@@ -0,0 +1,108 @@
+package ch.epfl.rigel.astronomy;
+
+import ch.epfl.rigel.math.Angle;
+
+import java.util.Arrays;
+
+import static java.lang.Math.*;
+
+/**
+ * Equal-area tiling of the celestial sphere, indexing objects by their equatorial position.
+ * The sphere is cut in zones of equal height in sin(dec), which all have the same area, and each zone
+ * is cut in cells of equal width in right ascension. The objects of each tile are stored contiguously.
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class SkyTiling {
+
+    static final int ZONES = 32;
+    static final int RA_CELLS = 64;
+    private static final double RA_CELL_WIDTH = Angle.TAU / RA_CELLS;
+
+    private final int size;
+    private final int[] tileStart;
+    private final int[] objects;
+
+    /**
+     * Index the objects of the given positions, the i-th object having the position (ra[i], dec[i])
+     *
+     * @param ra  the right ascensions in radian
+     * @param dec the declinations in radian
+     */
+    SkyTiling(double[] ra, double[] dec) {
+        size = ra.length;
+        int[] tiles = new int[size];
+        tileStart = new int[ZONES * RA_CELLS + 1];
+        for (int i = 0; i < size; i++) {
+            tiles[i] = zoneOf(dec[i]) * RA_CELLS + raCellOf(ra[i]);
+            tileStart[tiles[i] + 1]++;
+        }
+        for (int t = 0; t < ZONES * RA_CELLS; t++) {
+            tileStart[t + 1] += tileStart[t];
+        }
+
+        objects = new int[size];
+        int[] next = Arrays.copyOf(tileStart, ZONES * RA_CELLS);
+        for (int i = 0; i < size; i++) {
+            objects[next[tiles[i]]++] = i;
+        }
+    }
+
+    /**
+     * Find the objects that may be at an angular distance lower than radius of the given center. All the objects
+     * closer than radius are returned, together with some objects of the tiles crossing the border of the cone
+     *
+     * @param centerRa  the right ascension of the center of the cone in radian
+     * @param centerDec the declination of the center of the cone in radian
+     * @param radius    the angular radius of the cone in radian
+     * @return the indices of the objects, grouped by tile and in increasing order within each tile (all the
+     * indices in increasing order for the whole sphere)
+     */
+    int[] indicesWithin(double centerRa, double centerDec, double radius) {
+        if (radius >= PI) {
+            int[] all = new int[size];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+
+        int firstZone = zoneOf(max(-PI / 2, centerDec - radius));
+        int lastZone = zoneOf(min(PI / 2, centerDec + radius));
+
+        // A cone containing a pole covers every right ascension
+        int firstCell = 0;
+        int cellCount = RA_CELLS;
+        if (abs(centerDec) + radius < PI / 2) {
+            double halfWidth = asin(sin(radius) / cos(centerDec));
+            firstCell = (int) floor((centerRa - halfWidth) / RA_CELL_WIDTH);
+            cellCount = min(RA_CELLS, (int) floor((centerRa + halfWidth) / RA_CELL_WIDTH) - firstCell + 1);
+        }
+
+        int count = 0;
+        for (int zone = firstZone; zone <= lastZone; zone++) {
+            for (int c = 0; c < cellCount; c++) {
+                int tile = zone * RA_CELLS + floorMod(firstCell + c, RA_CELLS);
+                count += tileStart[tile + 1] - tileStart[tile];
+            }
+        }
+
+        int[] indices = new int[count];
+        int filled = 0;
+        for (int zone = firstZone; zone <= lastZone; zone++) {
+            for (int c = 0; c < cellCount; c++) {
+                int tile = zone * RA_CELLS + floorMod(firstCell + c, RA_CELLS);
+                int length = tileStart[tile + 1] - tileStart[tile];
+                System.arraycopy(objects, tileStart[tile], indices, filled, length);
+                filled += length;
+            }
+        }
+        return indices;
+    }
+
+    private static int zoneOf(double dec) {
+        return min(ZONES - 1, (int) ((sin(dec) + 1) / 2 * ZONES));
+    }
+
+    private static int raCellOf(double ra) {
+        return min(RA_CELLS - 1, (int) (Angle.normalizePositive(ra) / RA_CELL_WIDTH));
+    }
+}
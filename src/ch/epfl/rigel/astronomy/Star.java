@@ -37,6 +37,13 @@ public final class Star extends CelestialObject {
         return hipparcosId;
     }
 
+    /**
+     * @return the colorIndex of this star
+     */
+    public double colorIndex() {
+        return colorIndex;
+    }
+
     /**
      * Compute the color temperature of this star from his colorIndex
      *
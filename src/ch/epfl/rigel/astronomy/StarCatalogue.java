@@ -13,11 +13,22 @@ import java.util.*;
 public final class StarCatalogue {
 
     private final List<Star> stars;
-    private Map<Star, Integer> indexHashMap = new HashMap<>();
+    private final Star[] starArray;
+    private final StarColumns starColumns;
+    private final SkyTiling starTiling;
+    private final int[] asterismStarIndices;
+    private final int[] asterismSegments;
+    private final int[] asterismSegmentRanks;
+    private final Map<Star, Integer> indexHashMap;
     private Map<Asterism, List<Integer>> astIntHM = new HashMap<>();
 
     // Bonus
     private List<Pulsar> pulsarList;
+    private final Pulsar[] pulsarArray;
+    private final double[] pulsarRa;
+    private final double[] pulsarDec;
+    private final double[][] pulsarUnitVectors;
+    private final SkyTiling pulsarTiling;
 
     /**
      * Construct a Star and an asterism Catalogues from given list of stars and asterism
@@ -27,23 +38,88 @@ public final class StarCatalogue {
      * @throws IllegalArgumentException if a asterism contain a star that the list doesn't contain
      */
     public StarCatalogue(List<Star> stars, List<Asterism> asterisms, List<Pulsar> pulsars) {
+        this(stars, asterisms, pulsars, indicesOf(stars));
+    }
+
+    /**
+     * Construct the catalogue from an index map already filled in star order (as the builder does)
+     *
+     * @param starIndices the index of the first occurrence of each star in stars
+     * @throws IllegalArgumentException if a asterism contain a star that the map doesn't contain
+     */
+    private StarCatalogue(List<Star> stars, List<Asterism> asterisms, List<Pulsar> pulsars, Map<Star, Integer> starIndices) {
         this.stars = List.copyOf(stars);
+        this.starArray = this.stars.toArray(new Star[0]);
+        this.starColumns = new StarColumns(starArray);
 
         //Bonus
         this.pulsarList = List.copyOf(pulsars);
+        this.pulsarArray = pulsarList.toArray(new Pulsar[0]);
+
+        this.starTiling = new SkyTiling(starColumns.ra(), starColumns.dec());
+        this.pulsarRa = new double[pulsarArray.length];
+        this.pulsarDec = new double[pulsarArray.length];
+        for (int i = 0; i < pulsarArray.length; i++) {
+            pulsarRa[i] = pulsarArray[i].equatorialPos().ra();
+            pulsarDec[i] = pulsarArray[i].equatorialPos().dec();
+        }
+        this.pulsarTiling = new SkyTiling(pulsarRa, pulsarDec);
+        this.pulsarUnitVectors = new double[3][pulsarArray.length];
+        for (int i = 0; i < pulsarArray.length; i++) {
+            double cosDec = Math.cos(pulsarDec[i]);
+            pulsarUnitVectors[0][i] = cosDec * Math.cos(pulsarRa[i]);
+            pulsarUnitVectors[1][i] = cosDec * Math.sin(pulsarRa[i]);
+            pulsarUnitVectors[2][i] = Math.sin(pulsarDec[i]);
+        }
 
-        for (Star star : stars) {
-            indexHashMap.put(star, stars.indexOf(star));
-        };
+        this.indexHashMap = starIndices;
 
         for (Asterism asterism : asterisms) {
-            Preconditions.checkArgument(stars.containsAll(asterism.stars()));
-            List<Integer> starId = new ArrayList<>();
+            List<Integer> starId = new ArrayList<>(asterism.stars().size());
             for (Star star : asterism.stars()) {
-                starId.add(indexHashMap.get(star));
+                Integer index = indexHashMap.get(star);
+                Preconditions.checkArgument(index != null);
+                starId.add(index);
             }
             astIntHM.put(asterism, starId);
         }
+        this.asterismStarIndices = astIntHM.values().stream()
+                .flatMap(List::stream)
+                .mapToInt(Integer::intValue)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int segmentCount = 0;
+        for (List<Integer> indices : astIntHM.values()) {
+            segmentCount += Math.max(0, indices.size() - 1);
+        }
+        this.asterismSegments = new int[2 * segmentCount];
+        this.asterismSegmentRanks = new int[2 * segmentCount];
+        int s = 0;
+        for (List<Integer> indices : astIntHM.values()) {
+            for (int i = 0; i < indices.size() - 1; i++, s += 2) {
+                asterismSegments[s] = indices.get(i);
+                asterismSegments[s + 1] = indices.get(i + 1);
+                asterismSegmentRanks[s] = Arrays.binarySearch(asterismStarIndices, asterismSegments[s]);
+                asterismSegmentRanks[s + 1] = Arrays.binarySearch(asterismStarIndices, asterismSegments[s + 1]);
+            }
+        }
+    }
+
+    /**
+     * Give to each star the index of its first occurrence in the list, in a single pass
+     *
+     * @param stars list of stars
+     * @return a map from each star to its index
+     */
+    private static Map<Star, Integer> indicesOf(List<Star> stars) {
+        Map<Star, Integer> indices = new HashMap<>();
+        int i = 0;
+        for (Star star : stars) {
+            indices.putIfAbsent(star, i++);
+        }
+        return indices;
     }
 
     /**
@@ -58,6 +134,92 @@ public final class StarCatalogue {
         return Collections.unmodifiableList(pulsarList);
     }
 
+    /**
+     * @return the columnar view of the stars, in the same index order as stars()
+     */
+    public StarColumns starColumns() {
+        return starColumns;
+    }
+
+    /**
+     * Gives the stars of the catalogue in index order, without any copy
+     *
+     * @return the backing array of stars (must not be modified)
+     */
+    Star[] starArray() {
+        return starArray;
+    }
+
+    /**
+     * Gives the pulsars of the catalogue in index order, without any copy
+     *
+     * @return the backing array of pulsars (must not be modified)
+     */
+    Pulsar[] pulsarArray() {
+        return pulsarArray;
+    }
+
+    /**
+     * @return the tiling of the stars, giving their catalogue indices by position
+     */
+    SkyTiling starTiling() {
+        return starTiling;
+    }
+
+    /**
+     * @return the right ascensions of the pulsars in index order (must not be modified)
+     */
+    double[] pulsarRa() {
+        return pulsarRa;
+    }
+
+    /**
+     * @return the declinations of the pulsars in index order (must not be modified)
+     */
+    double[] pulsarDec() {
+        return pulsarDec;
+    }
+
+    /**
+     * @return the x, y and z coordinates of the unit vectors of the pulsars in index order, in the same frame as
+     * the ones of StarColumns (must not be modified)
+     */
+    double[][] pulsarUnitVectors() {
+        return pulsarUnitVectors;
+    }
+
+    /**
+     * @return the tiling of the pulsars, giving their catalogue indices by position
+     */
+    SkyTiling pulsarTiling() {
+        return pulsarTiling;
+    }
+
+    /**
+     * @return the catalogue indices of the stars belonging to at least one asterism, in increasing order
+     * (must not be modified)
+     */
+    int[] asterismStarIndices() {
+        return asterismStarIndices;
+    }
+
+    /**
+     * The lines of all the asterisms, each segment joining two successive stars of an asterism
+     *
+     * @return the catalogue indices of the ends of the segments, two by two (must not be modified)
+     */
+    public int[] asterismSegments() {
+        return asterismSegments;
+    }
+
+    /**
+     * @return the segments of asterismSegments(), each end given by its index in asterismStarIndices()
+     * (must not be modified)
+     */
+    int[] asterismSegmentRanks() {
+        return asterismSegmentRanks;
+    }
+
     /**
      * @return an immutable view of the key of the hashMap
      */
@@ -84,6 +246,8 @@ public final class StarCatalogue {
 
         private final List<Asterism> asterisms;
         private final List<Star> stars;
+        private final Map<Star, Integer> starIndices;
+        private final Map<Integer, Star> starsByHipparcosId;
 
         //Bonus
         private final List<Pulsar> pulsars;
@@ -94,6 +258,8 @@ public final class StarCatalogue {
         public Builder() {
             asterisms = new ArrayList<>();
             stars = new ArrayList<>();
+            starIndices = new HashMap<>();
+            starsByHipparcosId = new HashMap<>();
 
             //Bonus
             pulsars = new ArrayList<>();
@@ -106,10 +272,22 @@ public final class StarCatalogue {
          * @return the catalogue in construction  with the new star
          */
         public Builder addStar(Star star) {
+            starIndices.putIfAbsent(star, stars.size());
+            starsByHipparcosId.put(star.hipparcosId(), star);
             stars.add(star);
             return this;
         }
 
+        /**
+         * Look for a star already added to the catalogue in construction, by its Hipparcos number
+         *
+         * @param hipparcosId the Hipparcos number of the star
+         * @return the last star added with this number, or null if there is none
+         */
+        Star starWithHipparcosId(int hipparcosId) {
+            return starsByHipparcosId.get(hipparcosId);
+        }
+
         /**
          * @return an immutable list of stars of the catalogue
          */
@@ -165,7 +343,7 @@ public final class StarCatalogue {
          * @return the final catalogue
          */
         public StarCatalogue build() {
-            return new StarCatalogue(stars, asterisms, pulsars);
+            return new StarCatalogue(stars, asterisms, pulsars, new HashMap<>(starIndices));
         }
     }
 
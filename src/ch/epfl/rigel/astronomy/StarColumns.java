@@ -0,0 +1,153 @@
+package ch.epfl.rigel.astronomy;
+
+/**
+ * Columnar view of the stars of a catalogue : one primitive array per attribute, in catalogue index order.
+ * The arrays are shared, they must not be modified.
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class StarColumns {
+
+    private final Star[] stars;
+    private final double[] ra;
+    private final double[] dec;
+    private final double[] unitX;
+    private final double[] unitY;
+    private final double[] unitZ;
+    private final float[] magnitude;
+    private final float[] colorIndex;
+    private final int[] hipparcosId;
+    private final int[] colorTemperature;
+    private volatile String[] names;
+
+    /**
+     * Construct the columns of the given stars
+     *
+     * @param stars the stars of the catalogue, in index order
+     */
+    StarColumns(Star[] stars) {
+        this.stars = stars;
+        int n = stars.length;
+        ra = new double[n];
+        dec = new double[n];
+        unitX = new double[n];
+        unitY = new double[n];
+        unitZ = new double[n];
+        magnitude = new float[n];
+        colorIndex = new float[n];
+        hipparcosId = new int[n];
+        colorTemperature = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Star star = stars[i];
+            ra[i] = star.equatorialPos().ra();
+            dec[i] = star.equatorialPos().dec();
+            double cosDec = Math.cos(dec[i]);
+            unitX[i] = cosDec * Math.cos(ra[i]);
+            unitY[i] = cosDec * Math.sin(ra[i]);
+            unitZ[i] = Math.sin(dec[i]);
+            magnitude[i] = (float) star.magnitude();
+            colorIndex[i] = (float) star.colorIndex();
+            hipparcosId[i] = star.hipparcosId();
+            colorTemperature[i] = star.colorTemperature();
+        }
+    }
+
+    /**
+     * @return the number of stars
+     */
+    public int size() {
+        return ra.length;
+    }
+
+    /**
+     * @return the right ascensions in radian
+     */
+    public double[] ra() {
+        return ra;
+    }
+
+    /**
+     * @return the declinations in radian
+     */
+    public double[] dec() {
+        return dec;
+    }
+
+    /**
+     * The stars being fixed in the equatorial frame, their unit vectors let the sky be observed with a rotation
+     * instead of trigonometric functions (see EquatorialToCanvasKernel)
+     *
+     * @return the x coordinates of the unit vectors of the stars, toward the right ascension 0 on the equator
+     */
+    public double[] unitX() {
+        return unitX;
+    }
+
+    /**
+     * @return the y coordinates of the unit vectors of the stars, toward the right ascension π/2 on the equator
+     */
+    public double[] unitY() {
+        return unitY;
+    }
+
+    /**
+     * @return the z coordinates of the unit vectors of the stars, toward the north celestial pole
+     */
+    public double[] unitZ() {
+        return unitZ;
+    }
+
+    /**
+     * @return the magnitudes
+     */
+    public float[] magnitude() {
+        return magnitude;
+    }
+
+    /**
+     * @return the color indices
+     */
+    public float[] colorIndex() {
+        return colorIndex;
+    }
+
+    /**
+     * @return the Hipparcos numbers
+     */
+    public int[] hipparcosId() {
+        return hipparcosId;
+    }
+
+    /**
+     * @return the color temperatures in kelvin (see Star.colorTemperature())
+     */
+    public int[] colorTemperature() {
+        return colorTemperature;
+    }
+
+    /**
+     * Gives the names of the stars, the array being only materialized on the first call
+     *
+     * @return the names of the stars
+     */
+    public String[] names() {
+        String[] result = names;
+        if (result == null) {
+            result = new String[stars.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = stars[i].name();
+            }
+            names = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param index index of the star in the catalogue
+     * @return the name of the star
+     */
+    public String name(int index) {
+        return stars[index].name();
+    }
+}
@@ -21,7 +21,14 @@ public final class EclipticToEquatorialConversion implements Function<EclipticCo
     private final double sinEpsilon;
 
     public EclipticToEquatorialConversion(ZonedDateTime when) {
-        double epsilon = epsilonPoly.at(Epoch.J2000.julianCenturiesUntil(when));
+        this(Epoch.J2000.julianCenturiesUntil(when));
+    }
+
+    /**
+     * @param julianCenturiesSinceJ2000 the number of julian centuries between J2000 and the moment
+     */
+    public EclipticToEquatorialConversion(double julianCenturiesSinceJ2000) {
+        double epsilon = epsilonPoly.at(julianCenturiesSinceJ2000);
         cosEpsilon = Math.cos(epsilon);
         sinEpsilon = Math.sin(epsilon);
     }
@@ -35,13 +42,26 @@ public final class EclipticToEquatorialConversion implements Function<EclipticCo
      */
     @Override
     public EquatorialCoordinates apply(EclipticCoordinates ecl) {
-        double lambda = ecl.lon();
-        double beta = ecl.lat();
+        double[] raDec = new double[2];
+        apply(ecl.lon(), ecl.lat(), raDec, 0);
+        return EquatorialCoordinates.of(raDec[0], raDec[1]);
+    }
 
-        double alpha = Math.atan2(Math.sin(lambda) * cosEpsilon - Math.tan(beta) * sinEpsilon, Math.cos(lambda));
-        double delta = Math.asin(Math.sin(beta) * cosEpsilon + Math.cos(beta) * sinEpsilon * Math.sin(lambda));
+    /**
+     * Converts ecliptic coordinates into equatorial coordinates, without creating any object
+     *
+     * @param lambda the ecliptic longitude in radian
+     * @param beta   the ecliptic latitude in radian
+     * @param raDec  the array receiving the right ascension at index and the declination at index + 1, in radian
+     * @param index  the index of the right ascension in raDec
+     */
+    public void apply(double lambda, double beta, double[] raDec, int index) {
+        double sinLambda = Math.sin(lambda);
+        double alpha = Math.atan2(sinLambda * cosEpsilon - Math.tan(beta) * sinEpsilon, Math.cos(lambda));
+        double delta = Math.asin(Math.sin(beta) * cosEpsilon + Math.cos(beta) * sinEpsilon * sinLambda);
 
-        return EquatorialCoordinates.of(Angle.normalizePositive(alpha), delta);
+        raDec[index] = Angle.normalizePositive(alpha);
+        raDec[index + 1] = delta;
     }
 
     @Override
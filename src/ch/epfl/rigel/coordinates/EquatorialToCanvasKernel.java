@@ -0,0 +1,257 @@
+package ch.epfl.rigel.coordinates;
+
+import ch.epfl.rigel.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * Fused conversion of equatorial coordinates to the plane of a stereographic projection and to the canvas,
+ * in a single pass over primitive arrays. It computes the same positions as an EquatorialToHorizontalConversion
+ * followed by a StereographicProjection, without going through the angles of the horizontal coordinates : both are
+ * rotations, combined in a single 3x3 matrix applied to the unit vector of each object.
+ * The canvas transformation is the one of the sky canvas : a dilatation of the plane, with the y axis reversed,
+ * followed by a translation to the center of the canvas
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class EquatorialToCanvasKernel {
+
+    /**
+     * Flag of the objects below the horizon
+     */
+    public static final byte BELOW_HORIZON = 1;
+    /**
+     * Flag of the objects whose center is further than CANVAS_MARGIN pixels out of the canvas
+     */
+    public static final byte OUTSIDE_CANVAS = 2;
+    /**
+     * Margin around the canvas in pixels, so that the objects centered just outside of it are still drawn
+     */
+    public static final double CANVAS_MARGIN = 8;
+
+    private static final String VECTOR_MAPPER_CLASS = "ch.epfl.rigel.coordinates.VectorUnitVectorMapper";
+    private static final UnitVectorMapper VECTOR_MAPPER = loadVectorMapper();
+
+    // Rows of the rotation from the equatorial frame to the horizontal frame (east, north, up), and from the
+    // horizontal frame to the frame of the projection (p, q, w), so that x = p / (1 + w) and y = q / (1 + w)
+    private final double ux, uy, uz;
+    private final double px, py, pz;
+    private final double qx, qy, qz;
+    private final double wx, wy, wz;
+    private final double scale;
+    private final double centerX;
+    private final double centerY;
+    private final double halfWidth;
+    private final double halfHeight;
+    private final double[] parameters;
+
+    /**
+     * @param equToHor     the conversion of the observation, whose sidereal time and latitude terms are reused
+     * @param projection   the projection, whose center terms are reused
+     * @param scale        the dilatation from the plane to the canvas
+     * @param canvasWidth  the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     * @throws IllegalArgumentException if the scale isn't strictly positive or if the size of the canvas is negative
+     */
+    public EquatorialToCanvasKernel(EquatorialToHorizontalConversion equToHor, StereographicProjection projection,
+                                    double scale, double canvasWidth, double canvasHeight) {
+        Preconditions.checkArgument(scale > 0 && canvasWidth >= 0 && canvasHeight >= 0);
+        double cosTime = Math.cos(equToHor.siderealTime());
+        double sinTime = Math.sin(equToHor.siderealTime());
+        double cosPhi = equToHor.cosPhi();
+        double sinPhi = equToHor.sinPhi();
+        double cosLambda0 = Math.cos(projection.centerLon());
+        double sinLambda0 = Math.sin(projection.centerLon());
+        double cosPhi1 = projection.cosCenterLat();
+        double sinPhi1 = projection.sinCenterLat();
+
+        // East, north and up : cos(alt)sin(az), cos(alt)cos(az) and sin(alt), with the hour angle H = time - ra
+        double ex = -sinTime, ey = cosTime, ez = 0;
+        double nx = -sinPhi * cosTime, ny = -sinPhi * sinTime, nz = cosPhi;
+        ux = cosPhi * cosTime;
+        uy = cosPhi * sinTime;
+        uz = sinPhi;
+
+        // cos(alt)sin(az - λ0) and cos(alt)cos(az - λ0)
+        px = cosLambda0 * ex - sinLambda0 * nx;
+        py = cosLambda0 * ey - sinLambda0 * ny;
+        pz = cosLambda0 * ez - sinLambda0 * nz;
+        double cx = cosLambda0 * nx + sinLambda0 * ex;
+        double cy = cosLambda0 * ny + sinLambda0 * ey;
+        double cz = cosLambda0 * nz + sinLambda0 * ez;
+
+        qx = cosPhi1 * ux - sinPhi1 * cx;
+        qy = cosPhi1 * uy - sinPhi1 * cy;
+        qz = cosPhi1 * uz - sinPhi1 * cz;
+        wx = sinPhi1 * ux + cosPhi1 * cx;
+        wy = sinPhi1 * uy + cosPhi1 * cy;
+        wz = sinPhi1 * uz + cosPhi1 * cz;
+
+        this.scale = scale;
+        centerX = canvasWidth / 2;
+        centerY = canvasHeight / 2;
+        halfWidth = canvasWidth / 2 + CANVAS_MARGIN;
+        halfHeight = canvasHeight / 2 + CANVAS_MARGIN;
+
+        parameters = new double[UnitVectorMapper.PARAMETER_COUNT];
+        parameters[UnitVectorMapper.UX] = ux;
+        parameters[UnitVectorMapper.UY] = uy;
+        parameters[UnitVectorMapper.UZ] = uz;
+        parameters[UnitVectorMapper.PX] = px;
+        parameters[UnitVectorMapper.PY] = py;
+        parameters[UnitVectorMapper.PZ] = pz;
+        parameters[UnitVectorMapper.QX] = qx;
+        parameters[UnitVectorMapper.QY] = qy;
+        parameters[UnitVectorMapper.QZ] = qz;
+        parameters[UnitVectorMapper.WX] = wx;
+        parameters[UnitVectorMapper.WY] = wy;
+        parameters[UnitVectorMapper.WZ] = wz;
+        parameters[UnitVectorMapper.SCALE] = scale;
+        parameters[UnitVectorMapper.CENTER_X] = centerX;
+        parameters[UnitVectorMapper.CENTER_Y] = centerY;
+        parameters[UnitVectorMapper.HALF_WIDTH] = halfWidth;
+        parameters[UnitVectorMapper.HALF_HEIGHT] = halfHeight;
+    }
+
+    /**
+     * Load the vectorized implementation of applyToUnitVectors, compiled from the vector source folder with
+     * --add-modules jdk.incubator.vector. It can be disabled with the system property rigel.scalarKernel
+     *
+     * @return the vectorized implementation, null if it isn't available
+     */
+    private static UnitVectorMapper loadVectorMapper() {
+        if (Boolean.getBoolean("rigel.scalarKernel")) {
+            return null;
+        }
+        try {
+            UnitVectorMapper mapper = (UnitVectorMapper) Class.forName(VECTOR_MAPPER_CLASS).getDeclaredConstructor().newInstance();
+            // The classes of the module are only resolved on the first call
+            mapper.map(new double[UnitVectorMapper.PARAMETER_COUNT], new double[1], new double[1], new double[1],
+                    new double[2], new float[2], new byte[1], 0, 1);
+            return mapper;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if applyToUnitVectors uses the vectorized implementation (see loadVectorMapper)
+     */
+    public static boolean isVectorized() {
+        return VECTOR_MAPPER != null;
+    }
+
+    /**
+     * Maps the objects of indices from (inclusive) to to (exclusive). The object i is written at the indices 2i and
+     * 2i + 1 of the positions and at the index i of the flags
+     *
+     * @param ra       the right ascensions in radian
+     * @param dec      the declinations in radian
+     * @param planeXY  the array receiving the positions in the plane of the projection
+     * @param canvasXY the array receiving the positions on the canvas
+     * @param flags    the array receiving the flags of the objects (BELOW_HORIZON, OUTSIDE_CANVAS)
+     * @param from     the first index to map
+     * @param to       the index following the last index to map
+     * @throws IndexOutOfBoundsException if the range isn't included in all the arrays
+     */
+    public void apply(double[] ra, double[] dec, double[] planeXY, float[] canvasXY, byte[] flags, int from, int to) {
+        checkRange(Math.min(ra.length, dec.length), planeXY, canvasXY, flags, from, to);
+
+        for (int i = from; i < to; i++) {
+            double cosDelta = Math.cos(dec[i]);
+            map(i, cosDelta * Math.cos(ra[i]), cosDelta * Math.sin(ra[i]), Math.sin(dec[i]), planeXY, canvasXY, flags);
+        }
+    }
+
+    /**
+     * Maps the objects of indices from (inclusive) to to (exclusive), given by the unit vectors of their equatorial
+     * positions (see StarColumns). It doesn't use any trigonometric function, and processes several objects at once
+     * when the vectorized implementation is available (see isVectorized). The positions of both implementations
+     * differ by a few ulps, as the vectorized one uses fused multiply-adds
+     *
+     * @param x        the x coordinates of the unit vectors, toward the right ascension 0 on the equator
+     * @param y        the y coordinates of the unit vectors, toward the right ascension π/2 on the equator
+     * @param z        the z coordinates of the unit vectors, toward the north celestial pole
+     * @param planeXY  the array receiving the positions in the plane of the projection
+     * @param canvasXY the array receiving the positions on the canvas
+     * @param flags    the array receiving the flags of the objects (BELOW_HORIZON, OUTSIDE_CANVAS)
+     * @param from     the first index to map
+     * @param to       the index following the last index to map
+     * @throws IndexOutOfBoundsException if the range isn't included in all the arrays
+     */
+    public void applyToUnitVectors(double[] x, double[] y, double[] z, double[] planeXY, float[] canvasXY, byte[] flags, int from, int to) {
+        checkRange(Math.min(x.length, Math.min(y.length, z.length)), planeXY, canvasXY, flags, from, to);
+
+        if (VECTOR_MAPPER != null) {
+            VECTOR_MAPPER.map(parameters, x, y, z, planeXY, canvasXY, flags, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            map(i, x[i], y[i], z[i], planeXY, canvasXY, flags);
+        }
+    }
+
+    /**
+     * Places on another canvas the objects already mapped by a kernel, without rotating them again. The positions
+     * on the canvas and the flags are the same as the ones the kernel of this canvas would have computed
+     *
+     * @param planeXY       the positions in the plane of the projection
+     * @param previousFlags the flags computed with the positions, of which only BELOW_HORIZON is kept
+     * @param scale         the dilatation from the plane to the canvas
+     * @param canvasWidth   the width of the canvas in pixels
+     * @param canvasHeight  the height of the canvas in pixels
+     * @param canvasXY      the array receiving the positions on the canvas
+     * @param flags         the array receiving the flags of the objects (BELOW_HORIZON, OUTSIDE_CANVAS)
+     * @throws IllegalArgumentException  if the scale isn't strictly positive or if the size of the canvas is negative
+     * @throws IndexOutOfBoundsException if the arrays don't hold as many objects as previousFlags
+     */
+    public static void placeOnCanvas(double[] planeXY, byte[] previousFlags, double scale, double canvasWidth, double canvasHeight,
+                                     float[] canvasXY, byte[] flags) {
+        Preconditions.checkArgument(scale > 0 && canvasWidth >= 0 && canvasHeight >= 0);
+        checkRange(previousFlags.length, planeXY, canvasXY, flags, 0, previousFlags.length);
+        double centerX = canvasWidth / 2;
+        double centerY = canvasHeight / 2;
+        double halfWidth = canvasWidth / 2 + CANVAS_MARGIN;
+        double halfHeight = canvasHeight / 2 + CANVAS_MARGIN;
+
+        for (int i = 0; i < previousFlags.length; i++) {
+            double dx = planeXY[2 * i] * scale;
+            double dy = -planeXY[2 * i + 1] * scale;
+            canvasXY[2 * i] = (float) (centerX + dx);
+            canvasXY[2 * i + 1] = (float) (centerY + dy);
+
+            byte flag = (byte) (previousFlags[i] & BELOW_HORIZON);
+            if (!(Math.abs(dx) <= halfWidth && Math.abs(dy) <= halfHeight)) {
+                flag |= OUTSIDE_CANVAS;
+            }
+            flags[i] = flag;
+        }
+    }
+
+    private static void checkRange(int inputLength, double[] planeXY, float[] canvasXY, byte[] flags, int from, int to) {
+        int length = Math.min(inputLength, Math.min(Math.min(planeXY.length / 2, canvasXY.length / 2), flags.length));
+        Objects.checkFromToIndex(from, to, length);
+    }
+
+    private void map(int i, double vx, double vy, double vz, double[] planeXY, float[] canvasXY, byte[] flags) {
+        double up = ux * vx + uy * vy + uz * vz;
+        double d = 1 / (1 + wx * vx + wy * vy + wz * vz);
+        double x = d * (px * vx + py * vy + pz * vz);
+        double y = d * (qx * vx + qy * vy + qz * vz);
+
+        double dx = x * scale;
+        double dy = -y * scale;
+
+        planeXY[2 * i] = x;
+        planeXY[2 * i + 1] = y;
+        canvasXY[2 * i] = (float) (centerX + dx);
+        canvasXY[2 * i + 1] = (float) (centerY + dy);
+
+        // The negated comparisons also flag NaN positions as outside of the canvas
+        byte flag = up < 0 ? BELOW_HORIZON : 0;
+        if (!(Math.abs(dx) <= halfWidth && Math.abs(dy) <= halfHeight)) {
+            flag |= OUTSIDE_CANVAS;
+        }
+        flags[i] = flag;
+    }
+}
@@ -1,9 +1,11 @@
 package ch.epfl.rigel.coordinates;
 
+import ch.epfl.rigel.Preconditions;
 import ch.epfl.rigel.astronomy.SiderealTime;
 import ch.epfl.rigel.math.Angle;
 
 import java.time.ZonedDateTime;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -17,8 +19,19 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
     private final double siderealTime;
 
     public EquatorialToHorizontalConversion(ZonedDateTime when, GeographicCoordinates where) {
-        double phi = where.lat();
-        siderealTime = SiderealTime.local(when, where);
+        this(SiderealTime.local(when, where), where.lat());
+    }
+
+    /**
+     * @param daysSinceJ2000 the moment of the observation (see JulianTime)
+     * @param where          the location of the observer
+     */
+    public EquatorialToHorizontalConversion(double daysSinceJ2000, GeographicCoordinates where) {
+        this(SiderealTime.local(daysSinceJ2000, where), where.lat());
+    }
+
+    private EquatorialToHorizontalConversion(double siderealTime, double phi) {
+        this.siderealTime = siderealTime;
         cosPhi = Math.cos(phi);
         sinPhi = Math.sin(phi);
     }
@@ -42,6 +55,82 @@ public final class EquatorialToHorizontalConversion implements Function<Equatori
         return HorizontalCoordinates.of(Angle.normalizePositive(A), Math.asin(h));
     }
 
+    /**
+     * Converts all the given equatorial coordinates to horizontal coordinates, without any allocation
+     *
+     * @param ra  the right ascensions in radian
+     * @param dec the declinations in radian
+     * @param az  the array receiving the azimuths in radian, in [0, 2π[
+     * @param alt the array receiving the altitudes in radian, in [-π/2, π/2]
+     * @throws IllegalArgumentException if the arrays don't all have the same length
+     */
+    public void applyAll(double[] ra, double[] dec, double[] az, double[] alt) {
+        Preconditions.checkArgument(dec.length == ra.length && az.length == ra.length && alt.length == ra.length);
+        applyAll(ra, dec, az, alt, 0, ra.length);
+    }
+
+    /**
+     * Converts the equatorial coordinates of indices from (inclusive) to to (exclusive), without any allocation.
+     * The results are written at the same indices of az and alt
+     *
+     * @param ra   the right ascensions in radian
+     * @param dec  the declinations in radian
+     * @param az   the array receiving the azimuths in radian, in [0, 2π[
+     * @param alt  the array receiving the altitudes in radian, in [-π/2, π/2]
+     * @param from the first index to convert
+     * @param to   the index following the last index to convert
+     * @throws IndexOutOfBoundsException if the range isn't included in all the arrays
+     */
+    public void applyAll(double[] ra, double[] dec, double[] az, double[] alt, int from, int to) {
+        int length = Math.min(Math.min(ra.length, dec.length), Math.min(az.length, alt.length));
+        Objects.checkFromToIndex(from, to, length);
+
+        for (int i = from; i < to; i++) {
+            double h1 = siderealTime - ra[i];
+            double cosH = Math.cos(h1);
+            double sinH = Math.sin(h1);
+            double sinDelta = Math.sin(dec[i]);
+            double cosDelta = Math.cos(dec[i]);
+
+            double h = sinDelta * sinPhi + cosDelta * cosPhi * cosH;
+            double A = Math.atan2(-cosDelta * cosPhi * sinH, sinDelta - sinPhi * h);
+
+            // atan2 is in [-π, π], which is brought to [0, 2π[ without Angle.normalizePositive and its interval
+            double azimuth = A < 0 ? A + Angle.TAU : A;
+            az[i] = azimuth < Angle.TAU ? azimuth : 0;
+            alt[i] = Math.asin(h);
+        }
+    }
+
+    /**
+     * Compute the inverse of the apply() method
+     *
+     * @param hor the horizontal coordinates
+     * @return the equatorial coordinates of the point seen at hor
+     */
+    public EquatorialCoordinates inverseApply(HorizontalCoordinates hor) {
+        double cosAlt = Math.cos(hor.alt());
+        double sinAlt = Math.sin(hor.alt());
+        double cosAz = Math.cos(hor.az());
+
+        double sinDelta = sinAlt * sinPhi + cosAlt * cosPhi * cosAz;
+        double hourAngle = Math.atan2(-Math.sin(hor.az()) * cosAlt, sinAlt * cosPhi - cosAlt * sinPhi * cosAz);
+
+        return EquatorialCoordinates.of(Angle.normalizePositive(siderealTime - hourAngle), Math.asin(sinDelta));
+    }
+
+    double siderealTime() {
+        return siderealTime;
+    }
+
+    double cosPhi() {
+        return cosPhi;
+    }
+
+    double sinPhi() {
+        return sinPhi;
+    }
+
     @Override
     public  boolean equals(Object obj) {
         throw new UnsupportedOperationException();
@@ -102,6 +102,18 @@ public final class StereographicProjection implements Function<HorizontalCoordin
         }
     }
 
+    double centerLon() {
+        return lambda_0;
+    }
+
+    double cosCenterLat() {
+        return cosPhi_1;
+    }
+
+    double sinCenterLat() {
+        return sinPhi_1;
+    }
+
     @Override
     public final int hashCode() {
         throw new UnsupportedOperationException();
@@ -0,0 +1,27 @@
+package ch.epfl.rigel.coordinates;
+
+/**
+ * Implementation of EquatorialToCanvasKernel.applyToUnitVectors that can be replaced by a vectorized one,
+ * which is only compiled and loaded when the jdk.incubator.vector module is available
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+interface UnitVectorMapper {
+
+    // Indices of the parameters of the kernel
+    int UX = 0, UY = 1, UZ = 2;
+    int PX = 3, PY = 4, PZ = 5;
+    int QX = 6, QY = 7, QZ = 8;
+    int WX = 9, WY = 10, WZ = 11;
+    int SCALE = 12, CENTER_X = 13, CENTER_Y = 14, HALF_WIDTH = 15, HALF_HEIGHT = 16;
+    int PARAMETER_COUNT = 17;
+
+    /**
+     * Maps the unit vectors of indices from (inclusive) to to (exclusive), the range being already checked
+     *
+     * @param parameters the parameters of the kernel, at the indices above
+     * @see EquatorialToCanvasKernel#applyToUnitVectors(double[], double[], double[], double[], float[], byte[], int, int)
+     */
+    void map(double[] parameters, double[] x, double[] y, double[] z,
+             double[] planeXY, float[] canvasXY, byte[] flags, int from, int to);
+}
@@ -6,15 +6,17 @@ import javafx.scene.paint.Color;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 
 public class BlackBodyColor {
 
+    private static final ClosedInterval TEMPERATURE_INTERVAL = ClosedInterval.of(1000, 40000);
+    private static final int STEP = 100;
+    private static final int FIRST_BUCKET = 1000 / STEP;
 
-    private static final HashMap<Integer, String> colorTemperature = new HashMap<>();
-    private static final BlackBodyColor BLACK_BODY_COLOR = new BlackBodyColor();
+    // The colors of the table, parsed once, indexed by the temperature rounded to the hundred (see bucket())
+    private static final Color[] COLORS = new Color[40000 / STEP - FIRST_BUCKET + 1];
 
-    private BlackBodyColor() {
+    static {
         InputStream colors = BlackBodyColor.class.getResourceAsStream("/bbr_color.txt");
 
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(colors, StandardCharsets.US_ASCII))) {
@@ -22,7 +24,7 @@ public class BlackBodyColor {
             while ((line = reader.readLine()) != null) {
                 if (!(line.startsWith("#") || line.contains("2deg"))) {
                     String[] data = line.split("\\s+");
-                    colorTemperature.put(Integer.parseInt(data[1]), data[data.length - 1]);
+                    COLORS[Integer.parseInt(data[1]) / STEP - FIRST_BUCKET] = Color.web(data[data.length - 1]);
                 }
             }
         } catch (IOException e) {
@@ -30,10 +32,30 @@ public class BlackBodyColor {
         }
     }
 
+    private BlackBodyColor() {}
+
+    private static int bucket(double temperature) {
+        Preconditions.checkInInterval(TEMPERATURE_INTERVAL, temperature);
+        return (int) Math.round(temperature / STEP) - FIRST_BUCKET;
+    }
+
     public static Color colorForTemperature(double temperature) throws UncheckedIOException, IllegalArgumentException {
-        Preconditions.checkInInterval(ClosedInterval.of(1000, 40000), temperature);
-        double i = (int) Math.round(temperature/100)*100;
-        return Color.web(colorTemperature.get((int) i));
+        return COLORS[bucket(temperature)];
     }
-}
 
+    /**
+     * Resolve the colors of many temperatures at once, for instance the ones of the stars of a catalogue, so that
+     * they are then only read when drawing
+     *
+     * @param temperatures the temperatures in kelvin, in [1000, 40000]
+     * @return the color of each temperature, at the same index
+     * @throws IllegalArgumentException if a temperature isn't in [1000, 40000]
+     */
+    public static Color[] colorsForTemperatures(int[] temperatures) {
+        Color[] colors = new Color[temperatures.length];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = COLORS[bucket(temperatures[i])];
+        }
+        return colors;
+    }
+}
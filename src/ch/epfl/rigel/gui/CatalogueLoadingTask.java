@@ -0,0 +1,40 @@
+package ch.epfl.rigel.gui;
+
+import ch.epfl.rigel.astronomy.AsterismLoader;
+import ch.epfl.rigel.astronomy.BinaryCatalogueLoader;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import javafx.concurrent.Task;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * Loads the star catalogue outside of the JavaFX thread, so that the window is shown while it is loaded.
+ * The catalogue is published once, complete : each catalogue published makes the views observe the sky again,
+ * and the binary catalogue is read in a few milliseconds
+ *
+ * @author Souleyman Boudouh (302207)
+ * @author Francois Dumoncel (314420)
+ */
+final class CatalogueLoadingTask extends Task<StarCatalogue> {
+
+    private static final String BIN_CATALOGUE_NAME = "/catalogue.bin";
+    private static final String AST_CATALOGUE_NAME = "/asterisms.txt";
+
+    @Override
+    protected StarCatalogue call() throws Exception {
+        // The binary catalogue is compiled from hygdata_v3.csv and pulscat.csv by BinaryCatalogueCompiler
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        URL binaryCatalogue = getClass().getResource(BIN_CATALOGUE_NAME);
+        if (binaryCatalogue.getProtocol().equals("file")) {
+            BinaryCatalogueLoader.INSTANCE.load(Path.of(binaryCatalogue.toURI()), builder);
+        } else {
+            builder.loadFrom(binaryCatalogue.openStream(), BinaryCatalogueLoader.INSTANCE);
+        }
+
+        try (InputStream asterismStream = getClass().getResourceAsStream(AST_CATALOGUE_NAME)) {
+            return builder.loadFrom(asterismStream, AsterismLoader.INSTANCE).build();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ch.epfl.rigel.gui;
 
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.time.*;
@@ -10,8 +12,27 @@ public final class DateTimeBean {
     private ObjectProperty<LocalDate> date = new SimpleObjectProperty<>(null);
     private ObjectProperty<LocalTime> time = new SimpleObjectProperty<>(null);
     private ObjectProperty<ZoneId> zone = new SimpleObjectProperty<>(null);
+    // The combination of the three properties, published once by setZonedDateTime
+    private ReadOnlyObjectWrapper<ZonedDateTime> zonedDateTime = new ReadOnlyObjectWrapper<>(null);
+    private boolean updating;
 
     public DateTimeBean() {
+        date.addListener(o -> publish());
+        time.addListener(o -> publish());
+        zone.addListener(o -> publish());
+    }
+
+    private void publish() {
+        // The three properties are read in any case, as they only notify their listeners again once read
+        LocalDate date = getDate();
+        LocalTime time = getTime();
+        ZoneId zone = getZone();
+        if (!updating && date != null && time != null && zone != null) {
+            ZonedDateTime newZonedDateTime = ZonedDateTime.of(date, time, zone);
+            if (!newZonedDateTime.equals(zonedDateTime.get())) {
+                zonedDateTime.set(newZonedDateTime);
+            }
+        }
     }
 
     public ObjectProperty<LocalDate> dateProperty() {
@@ -51,13 +72,29 @@ public final class DateTimeBean {
     }
 
     public ZonedDateTime getZonedDateTime() {
-        return ZonedDateTime.of(getDate(), getTime(), getZone());
+        return zonedDateTime.get();
+    }
+
+    /**
+     * The moment of the observation, which only changes once when setZonedDateTime changes several of the date,
+     * the time and the zone, so that the sky isn't observed at an intermediate moment
+     *
+     * @return the combination of the date, the time and the zone, null until they are all set
+     */
+    public ReadOnlyObjectProperty<ZonedDateTime> zonedDateTimeProperty() {
+        return zonedDateTime.getReadOnlyProperty();
     }
 
     public void setZonedDateTime(ZonedDateTime zdt){
-        date.set(zdt.toLocalDate());
-        time.set(zdt.toLocalTime());
-        zone.set(zdt.getZone());
+        updating = true;
+        try {
+            date.set(zdt.toLocalDate());
+            time.set(zdt.toLocalTime());
+            zone.set(zdt.getZone());
+        } finally {
+            updating = false;
+        }
+        publish();
     }
 }
 
@@ -0,0 +1,84 @@
+package ch.epfl.rigel.gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands the frames rendered by a worker thread over to the thread showing them, like the back and front buffers of a
+ * double-buffered display : the worker offers each finished frame, and the showing thread takes the last one at its
+ * next turn. A frame offered before the previous one was taken replaces it and is counted as dropped, so that a slow
+ * display shows fewer frames instead of falling behind.
+ * The resources of a frame are released once it can no longer be shown : right away for a dropped frame, and for a
+ * shown frame once the next one is shown too, as the display may still read it until then
+ *
+ * @param <F> the type of the frames
+ * @author Souleyman Boudouh (302207)
+ */
+public final class FrameExchange<F> {
+
+    private final Consumer<F> release;
+    private final AtomicReference<F> pending = new AtomicReference<>();
+    private final AtomicLong offeredFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    // Only accessed by the thread showing the frames
+    private F shown;
+    private F retired;
+
+    /**
+     * @param release the action releasing the resources of a frame which can no longer be shown
+     */
+    public FrameExchange(Consumer<F> release) {
+        this.release = release;
+    }
+
+    /**
+     * Offer a finished frame, replacing the one waiting to be taken if any
+     *
+     * @param frame the finished frame
+     * @return true if no frame was waiting, in which case the showing thread must be asked to take this one
+     */
+    public boolean offer(F frame) {
+        offeredFrames.incrementAndGet();
+        F replaced = pending.getAndSet(frame);
+        if (replaced == null) {
+            return true;
+        }
+        droppedFrames.incrementAndGet();
+        release.accept(replaced);
+        return false;
+    }
+
+    /**
+     * Take the last offered frame, to be shown in place of the previously taken one. Must be called by the thread
+     * showing the frames
+     *
+     * @return the frame to show, or null if no frame was offered since the last call
+     */
+    public F take() {
+        F next = pending.getAndSet(null);
+        if (next != null) {
+            if (retired != null) {
+                release.accept(retired);
+            }
+            retired = shown;
+            shown = next;
+        }
+        return next;
+    }
+
+    /**
+     * @return the number of frames offered so far
+     */
+    public long offeredFrames() {
+        return offeredFrames.get();
+    }
+
+    /**
+     * @return the number of frames replaced before being taken so far
+     */
+    public long droppedFrames() {
+        return droppedFrames.get();
+    }
+}
@@ -37,6 +37,8 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -49,7 +51,7 @@ public class Main extends Application {
     private static final String PAUSE  = "\uf04c";
     private static final String SEARCH = "\uf002";
     private static final Color  MY_IRON_WHITE = Color.web("#e2d8e8");
-    private ObservedSky observedSky;
+    private SkyCanvasManager skyCanvasManager;
 
     public static void main(String[] args) {
         launch(args);
@@ -57,19 +59,29 @@ public class Main extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        StarCatalogue catalogue;
-        String HYG_CATALOGUE_NAME = "/hygdata_v3.csv";
-        String PUL_CAT_NAME = "/pulscat.csv";
-        String AST_CATALOGUE_NAME = "/asterisms.txt";
-
-        try (InputStream hygStream = getClass().getResourceAsStream(HYG_CATALOGUE_NAME)) {
-            InputStream asterismStream = getClass().getResourceAsStream(AST_CATALOGUE_NAME);
-            InputStream pulsarStream = getClass().getResourceAsStream(PUL_CAT_NAME);
-            catalogue = new StarCatalogue.Builder()
-                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
-                    .loadFrom(asterismStream, AsterismLoader.INSTANCE)
-                    .loadFrom(pulsarStream, PulsarDatabaseLoader.INSTANCE).build();
-        }
+        ObjectProperty<StarCatalogue> catalogue = new SimpleObjectProperty<>(new StarCatalogue.Builder().build());
+        CatalogueLoadingTask catalogueLoading = new CatalogueLoadingTask();
+        catalogueLoading.valueProperty().addListener((p, o, n) -> {
+            if (n != null) {
+                catalogue.set(n);
+            }
+        });
+        catalogueLoading.setOnFailed(e -> {
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.setTitle("Catalogue");
+            alert.setHeaderText("Le catalogue d'étoiles n'a pas pu être chargé.");
+            alert.setContentText(String.valueOf(catalogueLoading.getException()));
+            alert.getDialogPane().getStylesheets().add(getClass().getResource("/dialog.css").toString());
+            alert.show();
+        });
+
+        ExecutorService loadingExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "catalogue-loading");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadingExecutor.execute(catalogueLoading);
+        loadingExecutor.shutdown();
 
         BorderPane pulsarPane = new BorderPane();
         pulsarPane.setPrefSize(800, 500);
@@ -89,11 +101,13 @@ public class Main extends Application {
         viewingParametersBean.setCenter(HorizontalCoordinates.ofDeg(180.000000000001, 15));
         viewingParametersBean.setFieldOfViewDeg(100);
 
-        SkyCanvasManager canvasManager = new SkyCanvasManager(catalogue, dateTimeBean, observerLocationBean, viewingParametersBean);
+        // Both views are served by the same engine, the moment and the location being observed once
+        SkyEngine engine = new SkyEngine(catalogue, dateTimeBean, observerLocationBean);
+        SkyCanvasManager canvasManager = new SkyCanvasManager(engine, viewingParametersBean);
         Canvas sky = canvasManager.canvas();
-        observedSky = canvasManager.getSky();
+        skyCanvasManager = canvasManager;
 
-        PulsarCanvasManager canvasForPulsarManager = new PulsarCanvasManager(catalogue, dateTimeBean, observerLocationBean, viewingParametersBean);
+        PulsarCanvasManager canvasForPulsarManager = new PulsarCanvasManager(engine, viewingParametersBean);
         Canvas pulsar = canvasForPulsarManager.pulsarCanvas();
 
 
@@ -219,7 +233,16 @@ public class Main extends Application {
             CelestialObject found = null;
             String name = search.getText();
 
-            for (CelestialObject c : observedSky.allCO()) {
+            // The observed sky only holds the visible stars, the whole catalogue is searched
+            ObservedSky observedSky = skyCanvasManager.getSky();
+            StarCatalogue catalogue = skyCanvasManager.getCatalogue();
+            List<CelestialObject> searchable = new ArrayList<>(catalogue.stars());
+            searchable.addAll(catalogue.pulsars());
+            searchable.addAll(List.of(observedSky.planets()));
+            searchable.add(observedSky.sun());
+            searchable.add(observedSky.moon());
+
+            for (CelestialObject c : searchable) {
                 if (c.name().equalsIgnoreCase(name)) {
                     isInList = true;
                     found = c;
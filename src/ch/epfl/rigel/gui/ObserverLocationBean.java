@@ -1,20 +1,28 @@
 package ch.epfl.rigel.gui;
 
 import ch.epfl.rigel.coordinates.GeographicCoordinates;
-import javafx.beans.binding.Binding;
-import javafx.beans.binding.Bindings;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleDoubleProperty;
 
 public class ObserverLocationBean {
 
     private DoubleProperty lonDeg = new SimpleDoubleProperty();
     private DoubleProperty latDeg = new SimpleDoubleProperty();
-    private Binding<GeographicCoordinates> coordinates = Bindings.createObjectBinding(
-            () -> GeographicCoordinates.ofDeg(lonDeg.get(), latDeg.get()), lonDeg, latDeg
-    );
+    // The combination of the longitude and latitude, published once by setCoordinates
+    private ReadOnlyObjectWrapper<GeographicCoordinates> coordinates = new ReadOnlyObjectWrapper<>(GeographicCoordinates.ofDeg(0, 0));
+    private boolean updating;
 
     public ObserverLocationBean() {
+        lonDeg.addListener(o -> publish());
+        latDeg.addListener(o -> publish());
+    }
+
+    private void publish() {
+        if (!updating) {
+            coordinates.set(GeographicCoordinates.ofDeg(lonDeg.get(), latDeg.get()));
+        }
     }
 
     public double getLonDeg() {
@@ -42,16 +50,26 @@ public class ObserverLocationBean {
     }
 
     public GeographicCoordinates getCoordinates() {
-        return coordinates.getValue();
+        return coordinates.get();
     }
 
-    public Binding<GeographicCoordinates> coordinatesProperty() {
-        return coordinates;
+    /**
+     * @return the location of the observer, which only changes once when setCoordinates changes both the longitude
+     * and the latitude
+     */
+    public ReadOnlyObjectProperty<GeographicCoordinates> coordinatesProperty() {
+        return coordinates.getReadOnlyProperty();
     }
 
     public void setCoordinates(GeographicCoordinates coords) {
-        setLonDeg(coords.lonDeg());
-        setLatDeg(coords.latDeg());
+        updating = true;
+        try {
+            setLonDeg(coords.lonDeg());
+            setLatDeg(coords.latDeg());
+        } finally {
+            updating = false;
+        }
+        publish();
     }
 
 }
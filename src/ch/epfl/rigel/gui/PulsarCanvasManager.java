@@ -1,8 +1,7 @@
 package ch.epfl.rigel.gui;
 
 import ch.epfl.rigel.astronomy.CelestialObject;
-import ch.epfl.rigel.astronomy.ObservedSky;
-import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.astronomy.SkyLayer;
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import ch.epfl.rigel.coordinates.StereographicProjection;
@@ -21,6 +20,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.transform.NonInvertibleTransformException;
 import javafx.scene.transform.Transform;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 
@@ -36,10 +36,9 @@ public class PulsarCanvasManager {
     private ObjectProperty<CartesianCoordinates> mousePosition = new SimpleObjectProperty<>(CartesianCoordinates.of(1, 1));
     private ObjectProperty<Optional<CelestialObject>> objectUnderMouse = new SimpleObjectProperty<>();
 
-    private Binding<ObservedSky> sky;
+    private final SkyEngine.View pulsarView;
     private Binding<Transform> planeToCanvas;
     private Binding<StereographicProjection> projection;
-    private Binding<SkyCanvasPainter> painterBinding;
 
     private DoubleProperty rotationPeriod = new SimpleDoubleProperty();
     private DoubleProperty age = new SimpleDoubleProperty();
@@ -50,7 +49,7 @@ public class PulsarCanvasManager {
     private static final ClosedInterval fovInterval = ClosedInterval.of(30, 150);
 
 
-    PulsarCanvasManager(StarCatalogue catalogue, DateTimeBean dateTimeBean, ObserverLocationBean observerLocationBean, ViewingParametersBean viewingParametersBean) {
+    PulsarCanvasManager(SkyEngine engine, ViewingParametersBean viewingParametersBean) {
         pulsarCanvas = new Canvas(800, 800);
         SkyCanvasPainter painter = new SkyCanvasPainter(pulsarCanvas);
 
@@ -66,28 +65,17 @@ public class PulsarCanvasManager {
                 }, pulsarCanvas.widthProperty(), pulsarCanvas.heightProperty(), viewingParametersBean.fieldProperty()
         );
 
-        sky = Bindings.createObjectBinding(
-                () -> new ObservedSky(dateTimeBean.getZonedDateTime(), observerLocationBean.getCoordinates(), projection.getValue(), catalogue),
-                dateTimeBean.dateProperty(), observerLocationBean.coordinatesProperty(),
-                projection, viewingParametersBean.fieldProperty(), viewingParametersBean.centerProperty(), dateTimeBean.timeProperty(), planeToCanvas
-        );
-
-        painterBinding = Bindings.createObjectBinding(
-                () -> {
-                    drawPulsar(painter, sky.getValue(), projection.getValue(), planeToCanvas.getValue());
-                    return painter;
-                }, sky
-        );
-
-
-        painterBinding.addListener((p, o, n) -> System.out.println());
+        pulsarView = engine.subscribe(EnumSet.of(SkyLayer.PULSARS), projection, planeToCanvas, pulsarCanvas);
+        pulsarView.frameProperty().addListener((p, o, n) -> drawPulsar(painter, n));
+        drawPulsar(painter, pulsarView.getFrame());
 
         pulsarCanvas.setOnMouseClicked(e -> pulsarCanvas.requestFocus());
 
         pulsarCanvas.setOnMouseMoved(e -> {
             mousePosition.set(CartesianCoordinates.of(e.getX(), e.getY()));
             try {
-                objectUnderMouse.set(sky.getValue().objectClosestTo(inverseTransformation(mousePosition.get(), planeToCanvas.getValue()), planeToCanvas.getValue().inverseDeltaTransform(10, 0).magnitude()));
+                SkyEngine.Frame frame = pulsarView.getFrame();
+                objectUnderMouse.set(frame.sky().objectClosestTo(inverseTransformation(mousePosition.get(), frame.planeToCanvas()), frame.planeToCanvas().inverseDeltaTransform(10, 0).magnitude()));
                 if (objectUnderMouse.get().isPresent()) {
                     age.set(objectUnderMouse.get().get().getAge() / 1_000_000);
                     rotationPeriod.set(objectUnderMouse.get().get().getP0());
@@ -132,10 +120,10 @@ public class PulsarCanvasManager {
         });
     }
 
-    private void drawPulsar(SkyCanvasPainter painter, ObservedSky sky, StereographicProjection projection, Transform planeToCanvas) {
+    private void drawPulsar(SkyCanvasPainter painter, SkyEngine.Frame frame) {
         painter.clearForPulsar();
-        painter.drawPulsars(sky, projection, planeToCanvas);
-        painter.drawHorizon(projection, planeToCanvas);
+        painter.drawPulsars(frame.sky(), frame.projection(), frame.planeToCanvas());
+        painter.drawHorizon(frame.projection(), frame.planeToCanvas());
     }
 
     /**
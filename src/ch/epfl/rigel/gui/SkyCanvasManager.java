@@ -3,6 +3,7 @@ package ch.epfl.rigel.gui;
 import ch.epfl.rigel.astronomy.CelestialObject;
 import ch.epfl.rigel.astronomy.Moon;
 import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.SkyLayer;
 import ch.epfl.rigel.astronomy.StarCatalogue;
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
@@ -22,6 +23,7 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.transform.NonInvertibleTransformException;
 import javafx.scene.transform.Transform;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 public class SkyCanvasManager {
@@ -29,8 +31,9 @@ public class SkyCanvasManager {
     private ObjectProperty<CartesianCoordinates> mousePosition = new SimpleObjectProperty<>(CartesianCoordinates.of(1, 1));
     private ObjectProperty<Optional<CelestialObject>> objectUnderMouse = new SimpleObjectProperty<>();
     private Canvas canvas;
+    private final SkyEngine engine;
 
-    private final Binding<ObservedSky> sky;
+    private final SkyEngine.View skyView;
     private final Binding<Transform> planeToCanvas;
     private final Binding<StereographicProjection> projection;
     private Binding<SkyCanvasPainter> painterBinding;
@@ -44,7 +47,8 @@ public class SkyCanvasManager {
     private DoubleProperty mouseAltDeg = new SimpleDoubleProperty();
 
 
-    public SkyCanvasManager(StarCatalogue catalogue, DateTimeBean dateTimeBean, ObserverLocationBean observerLocationBean, ViewingParametersBean viewingParametersBean) {
+    public SkyCanvasManager(SkyEngine engine, ViewingParametersBean viewingParametersBean) {
+        this.engine = engine;
         canvas = new Canvas(800, 600);
         SkyCanvasPainter painter = new SkyCanvasPainter(canvas);
 
@@ -60,14 +64,9 @@ public class SkyCanvasManager {
                 }, canvas.widthProperty(), canvas.heightProperty(), viewingParametersBean.fieldProperty()
         );
 
-        sky = Bindings.createObjectBinding(
-                () -> new ObservedSky(dateTimeBean.getZonedDateTime(), observerLocationBean.getCoordinates(), projection.getValue(), catalogue),
-                dateTimeBean.dateProperty(), observerLocationBean.coordinatesProperty(),
-                projection, viewingParametersBean.fieldProperty(), viewingParametersBean.centerProperty(), dateTimeBean.timeProperty(), planeToCanvas
-        );
-
-
-        sky.addListener((p, o, n) -> drawSky(painter, sky.getValue(), projection.getValue(), planeToCanvas.getValue()));
+        skyView = engine.subscribe(EnumSet.of(SkyLayer.SOLAR_SYSTEM, SkyLayer.STARS, SkyLayer.ASTERISMS), projection, planeToCanvas, canvas);
+        skyView.frameProperty().addListener((p, o, n) -> drawSky(painter, n));
+        drawSky(painter, skyView.getFrame());
 
 
         canvas.setOnMouseMoved(e -> {
@@ -75,7 +74,9 @@ public class SkyCanvasManager {
             setMouseAltDeg(mouseHorizontalPosition.getValue().altDeg());
             setMouseAzDeg(mouseHorizontalPosition.getValue().azDeg());
             try {
-                setObjectUnderMouse(sky.getValue().objectClosestTo(inverseTransformation(getMousePosition(), planeToCanvas.getValue()), planeToCanvas.getValue().inverseDeltaTransform(10, 0).magnitude()));
+                // The positions of the last observed sky are the ones of its own transformation
+                SkyEngine.Frame frame = skyView.getFrame();
+                setObjectUnderMouse(frame.sky().objectClosestTo(inverseTransformation(getMousePosition(), frame.planeToCanvas()), frame.planeToCanvas().inverseDeltaTransform(SkyEngine.PICK_RADIUS, 0).magnitude()));
             } catch (NonInvertibleTransformException ex) {
                 ex.printStackTrace();
             }
@@ -91,7 +92,6 @@ public class SkyCanvasManager {
         canvas.setOnScroll(e -> {
             double FoV = (Math.abs(e.getDeltaX()) < Math.abs(e.getDeltaY())) ? e.getDeltaY() : e.getDeltaX();
             viewingParametersBean.setFieldOfViewDeg(fovInterval.clip(viewingParametersBean.getFieldOfViewDeg() + FoV / 6));
-            drawSky(painter, sky.getValue(), projection.getValue(), planeToCanvas.getValue());
         });
 
         canvas.setOnKeyPressed(keyEvent -> {
@@ -111,7 +111,6 @@ public class SkyCanvasManager {
                     modifyAzCords(viewingParametersBean, 10);
                     break;
             }
-            drawSky(painter, sky.getValue(), projection.getValue(), planeToCanvas.getValue());
             keyEvent.consume();
         });
     }
@@ -119,14 +118,15 @@ public class SkyCanvasManager {
     /**
      * Draw the entire sky to avoid some redundant lines of codes
      *
-     * @param painter       a SkyCanvasPainter instance
-     * @param sky           the observedSky at the given moment
-     * @param projection    the stereographic projection to use
-     * @param planeToCanvas useful to transform coordinates, a Transform instance
+     * @param painter a SkyCanvasPainter instance
+     * @param frame   the last observed sky, with its projection and transformation
      */
-    private void drawSky(SkyCanvasPainter painter, ObservedSky sky, StereographicProjection projection, Transform planeToCanvas) {
+    private void drawSky(SkyCanvasPainter painter, SkyEngine.Frame frame) {
+        ObservedSky sky = frame.sky();
+        StereographicProjection projection = frame.projection();
+        Transform planeToCanvas = frame.planeToCanvas();
         painter.clear();
-        painter.drawStars(sky, projection, planeToCanvas);
+        painter.drawStars(sky, projection, planeToCanvas, frame.stars());
         painter.drawPlanets(sky, projection, planeToCanvas);
         painter.drawSun(sky, projection, planeToCanvas);
         painter.drawMoon(sky, projection, planeToCanvas);
@@ -146,6 +146,19 @@ public class SkyCanvasManager {
         return CartesianCoordinates.of(pos.getX(), pos.getY());
     }
 
+    /**
+     * Compute the angular radius of the cone of the sky visible on the canvas
+     *
+     * @param canvas        the canvas on which the sky is drawn
+     * @param planeToCanvas the transformation from the projection plane to the canvas
+     * @return the angular distance from the center of the projection to the corners of the canvas, in radian
+     */
+    static double viewRadius(Canvas canvas, Transform planeToCanvas) {
+        // The stereographic projection puts the points at an angular distance c of the center at a distance tan(c / 2)
+        double halfDiagonal = Math.hypot(canvas.getWidth(), canvas.getHeight()) / 2;
+        return 2 * Math.atan(halfDiagonal / Math.abs(planeToCanvas.getMxx()));
+    }
+
     private void modifyAltCords(ViewingParametersBean viewingParametersBean, int delta) {
         viewingParametersBean.setCenter(HorizontalCoordinates.ofDeg(viewingParametersBean.getCenter().azDeg(),
                 altInterval.clip(viewingParametersBean.getCenter().altDeg() + delta)));
@@ -194,7 +207,11 @@ public class SkyCanvasManager {
     }
 
     public ObservedSky getSky() {
-        return sky.getValue();
+        return skyView.getFrame().sky();
+    }
+
+    StarCatalogue getCatalogue() {
+        return engine.getCatalogue();
     }
 
     Canvas canvas() {
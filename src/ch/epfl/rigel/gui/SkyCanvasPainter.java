@@ -2,6 +2,7 @@ package ch.epfl.rigel.gui;
 
 import ch.epfl.rigel.astronomy.*;
 import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToCanvasKernel;
 import ch.epfl.rigel.coordinates.HorizontalCoordinates;
 import ch.epfl.rigel.coordinates.StereographicProjection;
 import ch.epfl.rigel.math.Angle;
@@ -10,7 +11,6 @@ import javafx.animation.Animation;
 import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
-import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.Canvas;
@@ -30,13 +30,18 @@ public class SkyCanvasPainter {
     private static final ClosedInterval PULSAR_MAGNITUDE_INTERVAL = ClosedInterval.of(15, 27);
     private static final double SUN_ANGULAR_SIZE = Angle.ofDeg(0.5);
 
+    // The colors of the stars of the last drawn catalogue, in catalogue order, resolved once per catalogue, for the
+    // stars drawn with the canvas
+    private StarColumns coloredColumns;
+    private Color[] starColors;
+
     public SkyCanvasPainter(Canvas canvas) {
         this.canvas = canvas;
         this.ctx = canvas.getGraphicsContext2D();
 
     }
 
-    private static double diameterFromMagnitude(double magnitude, StereographicProjection projection) {
+    static double diameterFromMagnitude(double magnitude, StereographicProjection projection) {
         double clippedMagnitude = STAR_MAGNITUDE_INTERVAL.clip(magnitude);
         double f = (99 - 17 * clippedMagnitude) / 140;
         return f * projection.applyToAngle(SUN_ANGULAR_SIZE);
@@ -59,47 +64,63 @@ public class SkyCanvasPainter {
         ctx.fillOval(x - diamForCanvas / 2, y - diamForCanvas / 2, diamForCanvas, diamForCanvas);
     }
 
-    void drawStars(ObservedSky sky, StereographicProjection projection, Transform planeToCanvas) {
+    /**
+     * Draw the asterisms and the stars of the sky
+     *
+     * @param sky           the observed sky
+     * @param projection    the projection of the sky
+     * @param planeToCanvas the transformation from the plane of the projection to the canvas
+     * @param rendered      the image of the stars of the sky, already rendered by the engine (see StarRenderer), or
+     *                      null to draw them with one command of the canvas per star
+     */
+    void drawStars(ObservedSky sky, StereographicProjection projection, Transform planeToCanvas, StarImage rendered) {
         Star[] starToDraw = sky.stars();
-        double[] starProjectedCoords = sky.starPosition();
-        double[] starCanvasCoords = new double[starProjectedCoords.length];
-
-        planeToCanvas.transform2DPoints(starProjectedCoords, 0, starCanvasCoords, 0, 5067);
-
-        Bounds bounds = canvas.getBoundsInLocal();
-
-        for (Asterism asterism : sky.usedAsterism()) {
-
-            List<Integer> positionIndexList = sky.usedIndex(asterism);
-
-            for (int i = 0; i < positionIndexList.size() - 1; i++) {
-
-                int startIndex = 2 * positionIndexList.get(i);
-                int endIndex = 2 * positionIndexList.get(i + 1);
-
-                Point2D startingPoint = new Point2D(starCanvasCoords[startIndex], starCanvasCoords[startIndex + 1]);
-                Point2D endingPoint = new Point2D(starCanvasCoords[endIndex], starCanvasCoords[endIndex + 1]);
-
-                if (bounds.contains(startingPoint) || bounds.contains(endingPoint)) {
-                    ctx.setStroke(Color.BLUE);
-                    ctx.setLineWidth(1);
-                    ctx.beginPath();
-                    ctx.moveTo(startingPoint.getX(), startingPoint.getY());
-                    ctx.lineTo(endingPoint.getX(), endingPoint.getY());
-                    ctx.stroke();
-                    ctx.closePath();
-                }
-
+        // Computed with the stars by ObservedSky, with the same planeToCanvas transformation
+        float[] starCanvasCoords = sky.starCanvasPosition();
+        byte[] starFlags = sky.starFlags();
+        int[] starIndices = sky.starIndices();
+
+        // All the segments with an end on the canvas are stroked at once
+        int[] segments = sky.asterismSegments();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        ctx.beginPath();
+        for (int s = 0; s < segments.length; s += 2) {
+            int start = 2 * segments[s];
+            int end = 2 * segments[s + 1];
+            float startX = starCanvasCoords[start], startY = starCanvasCoords[start + 1];
+            float endX = starCanvasCoords[end], endY = starCanvasCoords[end + 1];
+
+            if ((startX >= 0 && startX <= width && startY >= 0 && startY <= height)
+                    || (endX >= 0 && endX <= width && endY >= 0 && endY <= height)) {
+                ctx.moveTo(startX, startY);
+                ctx.lineTo(endX, endY);
             }
         }
+        ctx.setStroke(Color.BLUE);
+        ctx.setLineWidth(1);
+        ctx.stroke();
 
         //Draw stars
+        if (rendered != null) {
+            ctx.drawImage(rendered.present(), 0, 0);
+            return;
+        }
+
+        StarColumns columns = sky.catalogue().starColumns();
+        if (columns != coloredColumns) {
+            starColors = BlackBodyColor.colorsForTemperatures(columns.colorTemperature());
+            coloredColumns = columns;
+        }
         for (int i = 0; i < starToDraw.length; i++) {
+            if ((starFlags[i] & EquatorialToCanvasKernel.OUTSIDE_CANVAS) != 0) {
+                continue;
+            }
             double diameter = diameterFromMagnitude(starToDraw[i].magnitude(), projection);
             double diameterForCanvas = planeToCanvas.deltaTransform(diameter, 0).magnitude();
             double r = diameterForCanvas / 2;
 
-            ctx.setFill(BlackBodyColor.colorForTemperature(starToDraw[i].colorTemperature()));
+            ctx.setFill(starColors[starIndices[i]]);
             ctx.fillOval(starCanvasCoords[2 * i] - r, starCanvasCoords[(2 * i) + 1] - r, diameterForCanvas, diameterForCanvas);
         }
 
@@ -157,7 +178,7 @@ public class SkyCanvasPainter {
         double[] planetProjectedCoords = sky.planetPosition();
         double[] planetCanvasCoords = new double[planetProjectedCoords.length];
 
-        planeToCanvas.transform2DPoints(planetProjectedCoords, 0, planetCanvasCoords, 0, 7);
+        planeToCanvas.transform2DPoints(planetProjectedCoords, 0, planetCanvasCoords, 0, planetToDraw.length);
 
         for (int i = 0; i < planetToDraw.length; i++) {
 
@@ -188,13 +209,14 @@ public class SkyCanvasPainter {
 
     void drawPulsars(ObservedSky sky, StereographicProjection projection, Transform planeToCanvas) {
         Pulsar[] pulsarsToDraw = sky.pulsars();
-        double[] pulsarProjectedCoords = sky.pulsarPosition();
-        double[] pulsarTransformedCoords = new double[pulsarProjectedCoords.length];
-
-        planeToCanvas.transform2DPoints(pulsarProjectedCoords, 0, pulsarTransformedCoords, 0, 2528);
+        float[] pulsarTransformedCoords = sky.pulsarCanvasPosition();
+        byte[] pulsarFlags = sky.pulsarFlags();
         HashMap<Point2D, Double> pulsarPoint = new HashMap<>();
 
         for (int i = 0; i < pulsarsToDraw.length; i++) {
+            if ((pulsarFlags[i] & EquatorialToCanvasKernel.OUTSIDE_CANVAS) != 0) {
+                continue;
+            }
             double diameter = diameterFromMagnitudeForPulsar((float) pulsarsToDraw[i].magnitude(), projection);
             double diameterForCanvas = planeToCanvas.deltaTransform(diameter, 0).magnitude();
             double r = diameterForCanvas / 2;
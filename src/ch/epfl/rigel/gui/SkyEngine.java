@@ -0,0 +1,337 @@
+package ch.epfl.rigel.gui;
+
+import ch.epfl.rigel.astronomy.Ephemerides;
+import ch.epfl.rigel.astronomy.EphemerisCache;
+import ch.epfl.rigel.astronomy.JulianTime;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.ProjectedSky;
+import ch.epfl.rigel.astronomy.SkyLayer;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.binding.Binding;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.transform.Transform;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Computes the state of the sky shared by all the views of the application : the ephemerides (moment) and the
+ * conversion to horizontal coordinates (moment and location) are computed once per change of their inputs, whatever
+ * the number of views. Each view subscribes to the layers of the catalogue it draws, and its own sky is observed (and
+ * its stars rasterized) on a dedicated thread, shared by all the views, so that the JavaFX Application Thread only
+ * swaps the finished frame in and paints it (see FrameExchange).
+ * The inputs of a view are read once per pulse, and the thread always observes the most recent of them : the
+ * requests made while it is busy replace each other, and only the last one is observed.
+ * The sky of a view is only observed while its canvas is shown in a window, so hidden views cost nothing
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class SkyEngine {
+
+    private static final double CULL_MARGIN = 1.5;
+    // The stars are rasterized with the sky on the thread of the engine, unless -Drigel.rasterizedStars=false is given,
+    // in which case they are drawn with one command of the canvas per star
+    private static final boolean RASTERIZED_STARS = !"false".equals(System.getProperty("rigel.rasterizedStars"));
+    // The distance in pixels under which an object is under the mouse
+    static final double PICK_RADIUS = 10;
+
+    /**
+     * An observed sky, with the projection and the transformation it was placed on the canvas with, and the image of
+     * its stars if they are observed
+     */
+    static final class Frame {
+        private final ObservedSky sky;
+        private final StereographicProjection projection;
+        private final Transform planeToCanvas;
+        private final StarImage stars;
+
+        private Frame(ObservedSky sky, StereographicProjection projection, Transform planeToCanvas, StarImage stars) {
+            this.sky = sky;
+            this.projection = projection;
+            this.planeToCanvas = planeToCanvas;
+            this.stars = stars;
+        }
+
+        ObservedSky sky() {
+            return sky;
+        }
+
+        StereographicProjection projection() {
+            return projection;
+        }
+
+        Transform planeToCanvas() {
+            return planeToCanvas;
+        }
+
+        /**
+         * @return the image of the stars, rendered with the sky, or null if the stars aren't observed or rasterized
+         */
+        StarImage stars() {
+            return stars;
+        }
+    }
+
+    /**
+     * The inputs of the observation of a view, read on the JavaFX Application Thread
+     */
+    private static final class Request {
+        private final StarCatalogue catalogue;
+        private final Ephemerides ephemerides;
+        private final EquatorialToHorizontalConversion equToHor;
+        private final StereographicProjection projection;
+        private final double cullRadius;
+        private final Transform planeToCanvas;
+        private final double canvasWidth;
+        private final double canvasHeight;
+
+        private Request(StarCatalogue catalogue, Ephemerides ephemerides, EquatorialToHorizontalConversion equToHor,
+                        StereographicProjection projection, double cullRadius, Transform planeToCanvas,
+                        double canvasWidth, double canvasHeight) {
+            this.catalogue = catalogue;
+            this.ephemerides = ephemerides;
+            this.equToHor = equToHor;
+            this.projection = projection;
+            this.cullRadius = cullRadius;
+            this.planeToCanvas = planeToCanvas;
+            this.canvasWidth = canvasWidth;
+            this.canvasHeight = canvasHeight;
+        }
+
+        /**
+         * @param that a previous request
+         * @return true if the projected sky of that request is also the one of this request. The inputs are
+         * compared by identity, as their bindings only create new values when their own inputs change
+         */
+        private boolean hasSameProjectedSky(Request that) {
+            return catalogue == that.catalogue && ephemerides == that.ephemerides && equToHor == that.equToHor
+                    && projection == that.projection && cullRadius == that.cullRadius;
+        }
+    }
+
+    /**
+     * The subscription of a view to some layers of the sky, observed on its own canvas
+     */
+    final class View {
+        private final Set<SkyLayer> layers;
+        private final ObservableValue<StereographicProjection> projection;
+        private final ObservableValue<Transform> planeToCanvas;
+        private final Canvas canvas;
+        // Kept in fields, as bindings are only weakly referenced by their dependencies
+        private final DoubleBinding viewRadius;
+        private final BooleanBinding shown;
+        private final DoubleProperty cullRadius;
+
+        private final ReadOnlyObjectWrapper<Frame> frame = new ReadOnlyObjectWrapper<>();
+        private final AtomicReference<Request> latestRequest = new AtomicReference<>();
+        private boolean requestScheduled;
+        private final FrameExchange<Frame> exchange;
+        // Started when a frame is finished, it swaps in the last finished frame at the next pulse and stops
+        private final AnimationTimer swapper = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                Frame next = exchange.take();
+                if (next != null) {
+                    frame.set(next);
+                }
+            }
+        };
+
+        // Only accessed by the thread observing the sky
+        private Request projectedRequest;
+        private ProjectedSky projectedSky;
+        private final StarRenderer starRenderer;
+
+        private View(Set<SkyLayer> layers, ObservableValue<StereographicProjection> projection,
+                     ObservableValue<Transform> planeToCanvas, Canvas canvas) {
+            this.layers = EnumSet.copyOf(layers);
+            this.projection = projection;
+            this.planeToCanvas = planeToCanvas;
+            this.canvas = canvas;
+            starRenderer = RASTERIZED_STARS && layers.contains(SkyLayer.STARS) ? new StarRenderer() : null;
+            exchange = new FrameExchange<>(f -> {
+                if (f.stars() != null) {
+                    starRenderer.release(f.stars());
+                }
+            });
+
+            // A property only invalidates its dependents when its value changes, unlike a binding
+            viewRadius = Bindings.createDoubleBinding(
+                    () -> SkyCanvasManager.viewRadius(canvas, planeToCanvas.getValue()),
+                    planeToCanvas, canvas.widthProperty(), canvas.heightProperty()
+            );
+            cullRadius = new SimpleDoubleProperty(Math.min(Math.PI, viewRadius.get() * CULL_MARGIN));
+            viewRadius.addListener((p, o, n) -> {
+                double radius = n.doubleValue();
+                if (radius > cullRadius.get() || radius * CULL_MARGIN * CULL_MARGIN < cullRadius.get()) {
+                    cullRadius.set(Math.min(Math.PI, radius * CULL_MARGIN));
+                }
+            });
+
+            shown = Bindings.createBooleanBinding(
+                    () -> canvas.getScene() != null && canvas.getScene().getWindow() != null,
+                    canvas.sceneProperty()
+            );
+            // The window of the scene is observed too, the scenes of the application being shown one at a time
+            InvalidationListener windowListener = o -> shown.invalidate();
+            canvas.sceneProperty().addListener((p, o, n) -> {
+                if (o != null) {
+                    o.windowProperty().removeListener(windowListener);
+                }
+                if (n != null) {
+                    n.windowProperty().addListener(windowListener);
+                }
+            });
+            if (canvas.getScene() != null) {
+                canvas.getScene().windowProperty().addListener(windowListener);
+            }
+
+            // The first frame is observed even if the view is hidden, so that it can always be drawn
+            exchange.offer(observe(currentRequest()));
+            frame.set(exchange.take());
+            shown.get();
+
+            // The inputs are read once all the changes of the current pulse are done
+            InvalidationListener scheduler = o -> {
+                if (!requestScheduled) {
+                    requestScheduled = true;
+                    Platform.runLater(() -> {
+                        requestScheduled = false;
+                        if (shown.get()) {
+                            request(currentRequest());
+                        }
+                    });
+                }
+            };
+            for (Observable input : new Observable[]{catalogue, ephemerides, equToHor, projection, cullRadius,
+                    planeToCanvas, canvas.widthProperty(), canvas.heightProperty(), shown}) {
+                input.addListener(scheduler);
+            }
+        }
+
+        /**
+         * @return the inputs of the observation, reading (and thus validating) all the bindings it depends on
+         */
+        private Request currentRequest() {
+            return new Request(catalogue.getValue(), ephemerides.getValue(), equToHor.getValue(), projection.getValue(),
+                    cullRadius.get(), planeToCanvas.getValue(), canvas.getWidth(), canvas.getHeight());
+        }
+
+        /**
+         * Replace the request waiting to be observed, the thread being only given a task when no request was waiting.
+         * The thread observes and renders the frame, and the JavaFX Application Thread only swaps it with the shown
+         * one at its next pulse, the frames finished in between replacing each other
+         */
+        private void request(Request request) {
+            if (latestRequest.getAndSet(request) == null) {
+                executor.execute(() -> {
+                    if (exchange.offer(observe(latestRequest.getAndSet(null)))) {
+                        Platform.runLater(swapper::start);
+                    }
+                });
+            }
+        }
+
+        private Frame observe(Request request) {
+            double scale = request.planeToCanvas.getMxx();
+            if (projectedRequest == null || !request.hasSameProjectedSky(projectedRequest)) {
+                projectedSky = new ProjectedSky(request.ephemerides, request.equToHor, request.projection, request.catalogue,
+                        layers, request.cullRadius, scale, request.canvasWidth, request.canvasHeight);
+                projectedRequest = request;
+            }
+            // The layers and the index of the objects under the mouse are computed here rather than by the thread drawing them
+            ObservedSky sky = new ObservedSky(projectedSky, scale, request.canvasWidth, request.canvasHeight)
+                    .computeLayers(PICK_RADIUS / scale);
+            StarImage stars = starRenderer == null ? null
+                    : starRenderer.render(sky, request.projection, request.planeToCanvas, request.canvasWidth, request.canvasHeight);
+            return new Frame(sky, request.projection, request.planeToCanvas, stars);
+        }
+
+        /**
+         * @return the last observed sky of the view, only changed on the JavaFX Application Thread
+         */
+        ReadOnlyObjectProperty<Frame> frameProperty() {
+            return frame.getReadOnlyProperty();
+        }
+
+        Frame getFrame() {
+            return frame.get();
+        }
+    }
+
+    private final ObservableValue<StarCatalogue> catalogue;
+    // Time-lapses go through the same windows frame after frame
+    private final EphemerisCache ephemerisCache = new EphemerisCache();
+    // The moment is only converted from java.time once per change
+    private final DoubleBinding julianTime;
+    private final Binding<Ephemerides> ephemerides;
+    private final Binding<EquatorialToHorizontalConversion> equToHor;
+    private final ExecutorService executor;
+
+    /**
+     * @param catalogue            the catalogue of the stars and pulsars
+     * @param dateTimeBean         the moment of the observation
+     * @param observerLocationBean the location of the observer
+     */
+    public SkyEngine(ObservableValue<StarCatalogue> catalogue, DateTimeBean dateTimeBean, ObserverLocationBean observerLocationBean) {
+        this.catalogue = catalogue;
+
+        julianTime = Bindings.createDoubleBinding(
+                () -> JulianTime.of(dateTimeBean.getZonedDateTime()),
+                dateTimeBean.zonedDateTimeProperty()
+        );
+
+        ephemerides = Bindings.createObjectBinding(
+                () -> new Ephemerides(julianTime.get(), ephemerisCache),
+                julianTime
+        );
+
+        equToHor = Bindings.createObjectBinding(
+                () -> new EquatorialToHorizontalConversion(julianTime.get(), observerLocationBean.getCoordinates()),
+                julianTime, observerLocationBean.coordinatesProperty()
+        );
+
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "sky-observation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Observe the given layers of the sky drawn on a canvas, once on the calling thread, and then on the thread of
+     * the engine each time one of their inputs change while the canvas is shown
+     *
+     * @param layers        the layers drawn on the canvas
+     * @param projection    the projection of the canvas
+     * @param planeToCanvas the transformation from the plane of the projection to the canvas
+     * @param canvas        the canvas on which the sky is drawn
+     * @return the subscription of the view
+     */
+    View subscribe(Set<SkyLayer> layers, ObservableValue<StereographicProjection> projection,
+                   ObservableValue<Transform> planeToCanvas, Canvas canvas) {
+        return new View(layers, projection, planeToCanvas, canvas);
+    }
+
+    StarCatalogue getCatalogue() {
+        return catalogue.getValue();
+    }
+}
@@ -0,0 +1,49 @@
+package ch.epfl.rigel.gui;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.nio.IntBuffer;
+
+/**
+ * An image of the stars, rasterized by any thread (see StarRasterizer) and shown by the JavaFX Application Thread
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class StarImage {
+
+    private final StarRasterizer rasterizer;
+    private final PixelBuffer<IntBuffer> buffer;
+    private final WritableImage image;
+
+    /**
+     * @param width  the width of the image in pixels, strictly positive
+     * @param height the height of the image in pixels, strictly positive
+     */
+    StarImage(int width, int height) {
+        rasterizer = new StarRasterizer(width, height);
+        // The image reads the pixels of the rasterizer, without any copy
+        buffer = new PixelBuffer<>(width, height, IntBuffer.wrap(rasterizer.pixels()), PixelFormat.getIntArgbPreInstance());
+        image = new WritableImage(buffer);
+    }
+
+    StarRasterizer rasterizer() {
+        return rasterizer;
+    }
+
+    boolean hasSize(int width, int height) {
+        return rasterizer.width() == width && rasterizer.height() == height;
+    }
+
+    /**
+     * Must be called on the JavaFX Application Thread, once the pixels are rasterized
+     *
+     * @return the image, marked as changed
+     */
+    Image present() {
+        buffer.updateBuffer(b -> null);
+        return image;
+    }
+}
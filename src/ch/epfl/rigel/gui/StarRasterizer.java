@@ -0,0 +1,202 @@
+package ch.epfl.rigel.gui;
+
+import ch.epfl.rigel.Preconditions;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * Draws discs straight into an array of pixels, in the premultiplied ARGB format of a JavaFX PixelBuffer, so that
+ * thousands of stars cost one pass over their pixels instead of one command of the canvas each.
+ * A disc is drawn by blending a sprite : the antialiased coverage of the pixels by a disc of the same diameter, rounded
+ * to a quarter of pixel, and whose center is at the same quarter of pixel. The sprites are computed the first time they
+ * are used, and kept
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class StarRasterizer {
+
+    // Number of positions and diameters per pixel of the sprites
+    private static final int SUBPIXELS = 4;
+    // Number of samples per pixel side when computing the coverage of a sprite
+    private static final int SAMPLES = 8;
+    // Diameter over which discs aren't drawn, in pixels
+    private static final double MAX_DIAMETER = 256;
+
+    /**
+     * The coverage of the pixels around the center of a disc, from 0 to 255
+     */
+    private static final class Sprite {
+        private final int offset;
+        private final int size;
+        private final int[] coverage;
+
+        private Sprite(int offset, int size, int[] coverage) {
+            this.offset = offset;
+            this.size = size;
+            this.coverage = coverage;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    // The sprites computed so far, indexed by their key (see sprite())
+    private final Sprite[] sprites = new Sprite[((int) MAX_DIAMETER * SUBPIXELS + 1) * SUBPIXELS * SUBPIXELS];
+
+    /**
+     * @param width  the width of the image in pixels
+     * @param height the height of the image in pixels
+     * @throws IllegalArgumentException if the width or the height is negative
+     */
+    public StarRasterizer(int width, int height) {
+        Preconditions.checkArgument(width >= 0 && height >= 0);
+        this.width = width;
+        this.height = height;
+        pixels = new int[width * height];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return the pixels of the image, row after row, in the premultiplied ARGB format
+     */
+    public int[] pixels() {
+        return pixels;
+    }
+
+    /**
+     * Make all the pixels of the image transparent
+     */
+    public void clear() {
+        Arrays.fill(pixels, 0);
+    }
+
+    /**
+     * Draw an opaque disc over the image, the pixels out of the image being ignored
+     *
+     * @param x        the x coordinate of the center of the disc, the pixel (i, j) covering [i, i + 1] x [j, j + 1]
+     * @param y        the y coordinate of the center of the disc
+     * @param diameter the diameter of the disc in pixels
+     * @param rgb      the color of the disc, as 0xRRGGBB
+     */
+    public void drawDisc(double x, double y, double diameter, int rgb) {
+        if (!(diameter > 0 && diameter <= MAX_DIAMETER)) {
+            return;
+        }
+        // The subpixel position of the center, relative to the center of the pixel (cx, cy)
+        long sx = Math.round((x - 0.5) * SUBPIXELS);
+        long sy = Math.round((y - 0.5) * SUBPIXELS);
+        long cx = Math.floorDiv(sx, SUBPIXELS);
+        long cy = Math.floorDiv(sy, SUBPIXELS);
+        int diameterBucket = Math.max(1, (int) Math.round(diameter * SUBPIXELS));
+
+        Sprite sprite = sprite(diameterBucket, (int) (sx - cx * SUBPIXELS), (int) (sy - cy * SUBPIXELS));
+        long left = cx - sprite.offset;
+        long top = cy - sprite.offset;
+        int fromCol = (int) Math.max(0, -left);
+        int toCol = (int) Math.min(sprite.size, width - left);
+        int fromRow = (int) Math.max(0, -top);
+        int toRow = (int) Math.min(sprite.size, height - top);
+
+        int red = (rgb >> 16) & 0xFF;
+        int green = (rgb >> 8) & 0xFF;
+        int blue = rgb & 0xFF;
+        for (int row = fromRow; row < toRow; row++) {
+            int pixel = (int) ((top + row) * width + left);
+            int spriteIndex = row * sprite.size;
+            for (int col = fromCol; col < toCol; col++) {
+                int a = sprite.coverage[spriteIndex + col];
+                if (a != 0) {
+                    pixels[pixel + col] = blend(pixels[pixel + col], a, red, green, blue);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param color a color
+     * @return the color as 0xRRGGBB, its opacity being ignored
+     */
+    public static int rgb(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    /**
+     * Blend an opaque color, covering a part a / 255 of a pixel, over the premultiplied color of the pixel
+     */
+    private static int blend(int destination, int a, int red, int green, int blue) {
+        int b = 255 - a;
+        int alpha = a * 255 + (destination >>> 24) * b;
+        int r = red * a + ((destination >> 16) & 0xFF) * b;
+        int g = green * a + ((destination >> 8) & 0xFF) * b;
+        int bl = blue * a + (destination & 0xFF) * b;
+        return div255(alpha) << 24 | div255(r) << 16 | div255(g) << 8 | div255(bl);
+    }
+
+    // The rounded quotient of v by 255, for v in [0, 255 * 255]
+    private static int div255(int v) {
+        v += 128;
+        return (v + (v >> 8)) >> 8;
+    }
+
+    private Sprite sprite(int diameterBucket, int subX, int subY) {
+        int key = (diameterBucket * SUBPIXELS + subX) * SUBPIXELS + subY;
+        Sprite sprite = sprites[key];
+        if (sprite == null) {
+            sprite = newSprite(diameterBucket / (double) SUBPIXELS, subX / (double) SUBPIXELS, subY / (double) SUBPIXELS);
+            sprites[key] = sprite;
+        }
+        return sprite;
+    }
+
+    /**
+     * Sample the coverage of the pixels by the disc, then scale it so that the total coverage is the area of the disc,
+     * which keeps the discs smaller than a pixel as bright as their size
+     */
+    private static Sprite newSprite(double diameter, double centerX, double centerY) {
+        double radius = diameter / 2;
+        int offset = (int) Math.ceil(radius) + 1;
+        int size = 2 * offset + 1;
+        double[] samples = new double[size * size];
+        double total = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int inside = 0;
+                for (int i = 0; i < SAMPLES; i++) {
+                    double dy = row - offset - 0.5 + (i + 0.5) / SAMPLES - centerY;
+                    for (int j = 0; j < SAMPLES; j++) {
+                        double dx = col - offset - 0.5 + (j + 0.5) / SAMPLES - centerX;
+                        if (dx * dx + dy * dy <= radius * radius) {
+                            inside++;
+                        }
+                    }
+                }
+                samples[row * size + col] = inside / (double) (SAMPLES * SAMPLES);
+                total += samples[row * size + col];
+            }
+        }
+
+        double area = Math.PI * radius * radius;
+        int[] coverage = new int[size * size];
+        if (total == 0) {
+            // The disc falls between the samples, it is drawn on the pixel containing its center
+            int nearest = (offset + (int) Math.round(centerY)) * size + offset + (int) Math.round(centerX);
+            coverage[nearest] = (int) Math.round(Math.min(1, area) * 255);
+        } else {
+            double scale = area / total;
+            for (int i = 0; i < coverage.length; i++) {
+                coverage[i] = (int) Math.round(Math.min(1, samples[i] * scale) * 255);
+            }
+        }
+        return new Sprite(offset, size, coverage);
+    }
+}
@@ -0,0 +1,92 @@
+package ch.epfl.rigel.gui;
+
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarColumns;
+import ch.epfl.rigel.coordinates.EquatorialToCanvasKernel;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rasterizes the stars of observed skies into images of the size of their canvas. The images are recycled : an image
+ * released by the thread showing it is rasterized again for a later sky.
+ * An instance renders on a single thread at a time, while its images can be released by any thread
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class StarRenderer {
+
+    private final Queue<StarImage> freeImages = new ConcurrentLinkedQueue<>();
+
+    // The colors of the stars of the last rendered catalogue, as 0xRRGGBB in catalogue order
+    private StarColumns coloredColumns;
+    private int[] starRgb;
+
+    /**
+     * @param sky           the observed sky, whose layers are computed
+     * @param projection    the projection of the sky
+     * @param planeToCanvas the transformation from the plane of the projection to the canvas
+     * @param canvasWidth   the width of the canvas
+     * @param canvasHeight  the height of the canvas
+     * @return the image of the stars of the sky, to be released once it is no longer shown
+     */
+    StarImage render(ObservedSky sky, StereographicProjection projection, Transform planeToCanvas,
+                     double canvasWidth, double canvasHeight) {
+        StarColumns columns = sky.catalogue().starColumns();
+        if (columns != coloredColumns) {
+            Color[] colors = BlackBodyColor.colorsForTemperatures(columns.colorTemperature());
+            starRgb = new int[colors.length];
+            for (int i = 0; i < starRgb.length; i++) {
+                starRgb[i] = StarRasterizer.rgb(colors[i]);
+            }
+            coloredColumns = columns;
+        }
+
+        StarImage image = acquire(canvasWidth, canvasHeight);
+        StarRasterizer rasterizer = image.rasterizer();
+        rasterizer.clear();
+
+        Star[] stars = sky.stars();
+        float[] canvasPositions = sky.starCanvasPosition();
+        byte[] flags = sky.starFlags();
+        int[] indices = sky.starIndices();
+        for (int i = 0; i < stars.length; i++) {
+            if ((flags[i] & EquatorialToCanvasKernel.OUTSIDE_CANVAS) != 0) {
+                continue;
+            }
+            double diameter = SkyCanvasPainter.diameterFromMagnitude(stars[i].magnitude(), projection);
+            double diameterForCanvas = planeToCanvas.deltaTransform(diameter, 0).magnitude();
+            rasterizer.drawDisc(canvasPositions[2 * i], canvasPositions[2 * i + 1], diameterForCanvas, starRgb[indices[i]]);
+        }
+        return image;
+    }
+
+    /**
+     * Give back an image which is no longer shown, so that it can be rasterized again
+     *
+     * @param image an image given by render()
+     */
+    void release(StarImage image) {
+        freeImages.offer(image);
+    }
+
+    /**
+     * @return a free image of the size of the canvas, the free images of other sizes being discarded
+     */
+    private StarImage acquire(double canvasWidth, double canvasHeight) {
+        // A pixel buffer can't be empty
+        int width = Math.max(1, (int) Math.ceil(canvasWidth));
+        int height = Math.max(1, (int) Math.ceil(canvasHeight));
+        StarImage image;
+        while ((image = freeImages.poll()) != null) {
+            if (image.hasSize(width, height)) {
+                return image;
+            }
+        }
+        return new StarImage(width, height);
+    }
+}
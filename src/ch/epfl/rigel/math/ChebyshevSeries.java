@@ -0,0 +1,111 @@
+package ch.epfl.rigel.math;
+
+import ch.epfl.rigel.Preconditions;
+
+/**
+ * A polynomial on an interval, written in the basis of the Chebyshev polynomials of the first kind of the variable
+ * mapped from the interval to [-1, 1]. Unlike the coefficients of a Polynomial, the ones of a Chebyshev series decrease
+ * quickly for smooth functions, and the series interpolating a function at the Chebyshev nodes of an interval is
+ * almost its best polynomial approximation there
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+public final class ChebyshevSeries {
+
+    private final double[] coefficients;
+    private final double center;
+    private final double halfSize;
+
+    private ChebyshevSeries(double[] coefficients, ClosedInterval interval) {
+        this.coefficients = coefficients;
+        center = (interval.low() + interval.high()) / 2;
+        halfSize = interval.size() / 2;
+    }
+
+    /**
+     * Compute the Chebyshev nodes of the first kind of an interval, at which a function is sampled to be interpolated
+     *
+     * @param interval the interval
+     * @param count    the number of nodes, which is the number of coefficients of the interpolating series
+     * @return the nodes, in decreasing order
+     * @throws IllegalArgumentException if count isn't strictly positive
+     */
+    public static double[] nodes(ClosedInterval interval, int count) {
+        Preconditions.checkArgument(count > 0);
+        double center = (interval.low() + interval.high()) / 2;
+        double halfSize = interval.size() / 2;
+        double[] nodes = new double[count];
+        for (int k = 0; k < count; k++) {
+            nodes[k] = center + halfSize * Math.cos(Math.PI * (k + 0.5) / count);
+        }
+        return nodes;
+    }
+
+    /**
+     * Construction method of the series interpolating a function at the Chebyshev nodes of an interval
+     *
+     * @param interval the interval
+     * @param values   the values of the function at the nodes of the interval, in the order of nodes()
+     * @return the series of degree values.length - 1 taking the given values at the nodes
+     * @throws IllegalArgumentException if values is empty
+     */
+    public static ChebyshevSeries interpolating(ClosedInterval interval, double... values) {
+        int count = values.length;
+        Preconditions.checkArgument(count > 0);
+        double[] coefficients = new double[count];
+        for (int k = 0; k < count; k++) {
+            // The polynomials at the node cos(t) are cos(j * t), given by the recurrence of the Chebyshev polynomials
+            double u = Math.cos(Math.PI * (k + 0.5) / count);
+            double previous = 1;
+            double current = u;
+            coefficients[0] += values[k];
+            for (int j = 1; j < count; j++) {
+                coefficients[j] += values[k] * current;
+                double next = 2 * u * current - previous;
+                previous = current;
+                current = next;
+            }
+        }
+        for (int j = 0; j < count; j++) {
+            coefficients[j] *= (j == 0 ? 1d : 2d) / count;
+        }
+        return new ChebyshevSeries(coefficients, interval);
+    }
+
+    /**
+     * Compute the value of the series at the given point, with the recurrence of Clenshaw. Outside of the interval,
+     * the series is extrapolated, and quickly moves away from the interpolated function
+     *
+     * @param x the given point
+     * @return the value of the series
+     */
+    public double at(double x) {
+        double u = (x - center) / halfSize;
+        double twoU = 2 * u;
+        double next = 0;
+        double current = 0;
+        for (int j = coefficients.length - 1; j > 0; j--) {
+            double previous = twoU * current - next + coefficients[j];
+            next = current;
+            current = previous;
+        }
+        return u * current - next + coefficients[0];
+    }
+
+    /**
+     * @return the degree of the series
+     */
+    public int degree() {
+        return coefficients.length - 1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int hashCode() {
+        throw new UnsupportedOperationException();
+    }
+}
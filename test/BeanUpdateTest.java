@@ -0,0 +1,94 @@
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.gui.DateTimeBean;
+import ch.epfl.rigel.gui.NamedTimeAccelerator;
+import ch.epfl.rigel.gui.ObserverLocationBean;
+import javafx.beans.binding.Binding;
+import javafx.beans.binding.Bindings;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeanUpdateTest {
+
+    // At 50 frames per second, every frame moves the discrete accelerators by one step
+    private static final long FRAME_NANOS = 1_000_000_000L / 50;
+
+    @Test
+    void animationComputesTheSkyOncePerFrame() {
+        for (NamedTimeAccelerator accelerator : NamedTimeAccelerator.values()) {
+            DateTimeBean dateTimeBean = new DateTimeBean();
+            // Just before midnight, so that the date changes during the animation
+            dateTimeBean.setZonedDateTime(ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(23, 59), ZoneOffset.UTC));
+            ObserverLocationBean observerLocationBean = new ObserverLocationBean();
+            observerLocationBean.setCoordinates(GeographicCoordinates.ofDeg(6.57, 46.52));
+
+            int[] computations = new int[1];
+            Binding<ZonedDateTime> sky = Bindings.createObjectBinding(() -> {
+                computations[0]++;
+                return dateTimeBean.getZonedDateTime();
+            }, dateTimeBean.zonedDateTimeProperty(), observerLocationBean.coordinatesProperty());
+            int[] changes = new int[1];
+            sky.addListener((p, o, n) -> changes[0]++);
+
+            LocalDate firstDate = dateTimeBean.getDate();
+            int frames = 200;
+            for (int i = 0; i < frames; i++) {
+                dateTimeBean.setZonedDateTime(accelerator.getAccelerator().adjust(dateTimeBean.getZonedDateTime(), FRAME_NANOS));
+            }
+
+            // One computation when the listener was added, then one per frame
+            assertEquals(frames + 1, computations[0]);
+            assertEquals(frames, changes[0]);
+            assertEquals(dateTimeBean.getZonedDateTime(), sky.getValue());
+            if (accelerator != NamedTimeAccelerator.TIMES_1 && accelerator != NamedTimeAccelerator.TIMES_30) {
+                assertNotEquals(firstDate, dateTimeBean.getDate());
+            }
+        }
+    }
+
+    @Test
+    void setZonedDateTimePublishesOneChange() {
+        DateTimeBean dateTimeBean = new DateTimeBean();
+        assertNull(dateTimeBean.zonedDateTimeProperty().get());
+
+        int[] changes = new int[1];
+        dateTimeBean.zonedDateTimeProperty().addListener(o -> changes[0]++);
+        ZonedDateTime when = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(12, 30), ZoneId.of("Europe/Zurich"));
+        dateTimeBean.setZonedDateTime(when);
+        assertEquals(when, dateTimeBean.zonedDateTimeProperty().get());
+        assertEquals(1, changes[0]);
+
+        dateTimeBean.zonedDateTimeProperty().get();
+        dateTimeBean.setZonedDateTime(when.plusDays(1).plusHours(1));
+        assertEquals(when.plusDays(1).plusHours(1), dateTimeBean.zonedDateTimeProperty().get());
+        assertEquals(2, changes[0]);
+    }
+
+    @Test
+    void singlePropertiesArePublishedToo() {
+        DateTimeBean dateTimeBean = new DateTimeBean();
+        ZonedDateTime when = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(12, 30), ZoneOffset.UTC);
+        dateTimeBean.setZonedDateTime(when);
+        dateTimeBean.setDate(LocalDate.of(2021, Month.MAY, 5));
+        assertEquals(ZonedDateTime.of(LocalDate.of(2021, Month.MAY, 5), LocalTime.of(12, 30), ZoneOffset.UTC),
+                dateTimeBean.zonedDateTimeProperty().get());
+
+        ObserverLocationBean observerLocationBean = new ObserverLocationBean();
+        observerLocationBean.setLatDeg(45);
+        assertEquals(45, observerLocationBean.coordinatesProperty().get().latDeg(), 1e-12);
+    }
+
+    @Test
+    void setCoordinatesPublishesOneChange() {
+        ObserverLocationBean observerLocationBean = new ObserverLocationBean();
+        int[] changes = new int[1];
+        observerLocationBean.coordinatesProperty().addListener(o -> changes[0]++);
+
+        observerLocationBean.setCoordinates(GeographicCoordinates.ofDeg(6.57, 46.52));
+        assertEquals(1, changes[0]);
+        assertEquals(6.57, observerLocationBean.getCoordinates().lonDeg(), 1e-12);
+        assertEquals(46.52, observerLocationBean.getCoordinates().latDeg(), 1e-12);
+    }
+}
@@ -0,0 +1,55 @@
+import ch.epfl.rigel.astronomy.BinaryCatalogueCompiler;
+import ch.epfl.rigel.astronomy.BinaryCatalogueLoader;
+import ch.epfl.rigel.astronomy.HygDatabaseLoader;
+import ch.epfl.rigel.astronomy.PulsarDatabaseLoader;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Timings of the binary catalogue against the CSV files, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class BinaryCatalogueLoaderBenchmarkTest {
+
+    private static StarCatalogue.Builder csvBuilder() throws IOException {
+        try (InputStream hygStream = BinaryCatalogueLoaderBenchmarkTest.class.getResourceAsStream("/hygdata_v3.csv");
+             InputStream pulsarStream = BinaryCatalogueLoaderBenchmarkTest.class.getResourceAsStream("/pulscat.csv")) {
+            return new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .loadFrom(pulsarStream, PulsarDatabaseLoader.INSTANCE);
+        }
+    }
+
+    @Test
+    void timeBinaryLoadAgainstCsv() throws IOException {
+        Path file = Files.createTempFile("catalogue", ".bin");
+        try {
+            StarCatalogue.Builder csv = csvBuilder();
+            try (OutputStream output = Files.newOutputStream(file)) {
+                BinaryCatalogueCompiler.write(csv.stars(), csv.pulsars(), output);
+            }
+            long csvTime = Long.MAX_VALUE, binaryTime = Long.MAX_VALUE;
+            for (int i = 0; i < 10; i++) {
+                long start = System.nanoTime();
+                csvBuilder();
+                csvTime = Math.min(csvTime, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                BinaryCatalogueLoader.INSTANCE.load(file, new StarCatalogue.Builder());
+                binaryTime = Math.min(binaryTime, System.nanoTime() - start);
+            }
+            System.out.printf("Catalogue load: CSV %.2f ms, binary %.2f ms%n", csvTime / 1e6, binaryTime / 1e6);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
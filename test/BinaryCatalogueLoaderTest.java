@@ -0,0 +1,172 @@
+import ch.epfl.rigel.astronomy.*;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryCatalogueLoaderTest {
+
+    private static StarCatalogue.Builder csvBuilder() throws IOException {
+        try (InputStream hygStream = BinaryCatalogueLoaderTest.class.getResourceAsStream("/hygdata_v3.csv");
+             InputStream pulsarStream = BinaryCatalogueLoaderTest.class.getResourceAsStream("/pulscat.csv")) {
+            return new StarCatalogue.Builder()
+                    .loadFrom(hygStream, HygDatabaseLoader.INSTANCE)
+                    .loadFrom(pulsarStream, PulsarDatabaseLoader.INSTANCE);
+        }
+    }
+
+    private static byte[] compile(StarCatalogue.Builder builder) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryCatalogueCompiler.write(builder.stars(), builder.pulsars(), output);
+        return output.toByteArray();
+    }
+
+    private static void assertSameObjects(StarCatalogue.Builder expected, StarCatalogue.Builder actual) {
+        assertEquals(expected.stars().size(), actual.stars().size());
+        for (int i = 0; i < expected.stars().size(); i++) {
+            Star e = expected.stars().get(i), a = actual.stars().get(i);
+            assertEquals(e.hipparcosId(), a.hipparcosId());
+            assertEquals(e.name(), a.name());
+            assertEquals(e.equatorialPos().ra(), a.equatorialPos().ra());
+            assertEquals(e.equatorialPos().dec(), a.equatorialPos().dec());
+            assertEquals(e.magnitude(), a.magnitude());
+            assertEquals(e.colorIndex(), a.colorIndex());
+        }
+
+        assertEquals(expected.pulsars().size(), actual.pulsars().size());
+        for (int i = 0; i < expected.pulsars().size(); i++) {
+            Pulsar e = expected.pulsars().get(i), a = actual.pulsars().get(i);
+            assertEquals(e.name(), a.name());
+            assertEquals(e.equatorialPos().ra(), a.equatorialPos().ra());
+            assertEquals(e.equatorialPos().dec(), a.equatorialPos().dec());
+            assertEquals(e.getP0(), a.getP0());
+            assertEquals(e.getP1(), a.getP1());
+            assertEquals(e.getAge(), a.getAge());
+            assertEquals(e.getDistance(), a.getDistance());
+            assertEquals(e.magnitude(), a.magnitude());
+        }
+    }
+
+    @Test
+    void streamRoundTripKeepsAllFields() throws IOException {
+        StarCatalogue.Builder expected = csvBuilder();
+        StarCatalogue.Builder actual = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(compile(expected)), BinaryCatalogueLoader.INSTANCE);
+        assertSameObjects(expected, actual);
+    }
+
+    @Test
+    void mappedFileRoundTripKeepsAllFields() throws IOException {
+        StarCatalogue.Builder expected = csvBuilder();
+        Path file = Files.createTempFile("catalogue", ".bin");
+        try {
+            Files.write(file, compile(expected));
+
+            StarCatalogue.Builder fromPath = new StarCatalogue.Builder();
+            BinaryCatalogueLoader.INSTANCE.load(file, fromPath);
+            assertSameObjects(expected, fromPath);
+
+            StarCatalogue.Builder fromFileStream = new StarCatalogue.Builder()
+                    .loadFrom(Files.newInputStream(file), BinaryCatalogueLoader.INSTANCE);
+            assertSameObjects(expected, fromFileStream);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void emptyCatalogueRoundTrips() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryCatalogueCompiler.write(List.of(), List.of(), output);
+        StarCatalogue catalogue = new StarCatalogue.Builder()
+                .loadFrom(new ByteArrayInputStream(output.toByteArray()), BinaryCatalogueLoader.INSTANCE)
+                .build();
+        assertEquals(0, catalogue.stars().size());
+        assertEquals(0, catalogue.pulsars().size());
+    }
+
+    @Test
+    void loaderFailsOnOtherData() {
+        assertThrows(IOException.class, () -> new StarCatalogue.Builder()
+                .loadFrom(BinaryCatalogueLoaderTest.class.getResourceAsStream("/hygdata_v3.csv"), BinaryCatalogueLoader.INSTANCE));
+    }
+
+    @Test
+    void bundledCatalogueMatchesCsvFiles() throws IOException {
+        StarCatalogue.Builder csv = csvBuilder();
+        StarCatalogue.Builder binary = new StarCatalogue.Builder()
+                .loadFrom(BinaryCatalogueLoaderTest.class.getResourceAsStream("/catalogue.bin"), BinaryCatalogueLoader.INSTANCE);
+
+        assertEquals(csv.stars().size(), binary.stars().size());
+        assertEquals(csv.pulsars().size(), binary.pulsars().size());
+        for (int i = 0; i < csv.stars().size(); i++) {
+            assertEquals(csv.stars().get(i).hipparcosId(), binary.stars().get(i).hipparcosId());
+            assertEquals(csv.stars().get(i).equatorialPos().ra(), binary.stars().get(i).equatorialPos().ra());
+        }
+    }
+
+    @Test
+    void truncatedOrCorruptedCatalogueFailsWithIOException() throws IOException {
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        TestCatalogues.randomStars(TestRandomizer.newRandom(), 100).forEach(builder::addStar);
+        byte[] bytes = compile(builder);
+
+        for (int length : new int[]{16, 100, bytes.length / 2, bytes.length - 1}) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> new StarCatalogue.Builder()
+                    .loadFrom(new ByteArrayInputStream(truncated), BinaryCatalogueLoader.INSTANCE));
+        }
+        // Star count, then pulsar count
+        for (int offset : new int[]{8, 12}) {
+            for (int count : new int[]{-1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+                byte[] corrupted = bytes.clone();
+                ByteBuffer.wrap(corrupted).putInt(offset, count);
+                assertThrows(IOException.class, () -> new StarCatalogue.Builder()
+                        .loadFrom(new ByteArrayInputStream(corrupted), BinaryCatalogueLoader.INSTANCE));
+            }
+        }
+    }
+
+    @Test
+    void corruptedPulsarSectionLeavesTheBuilderEmpty() throws IOException {
+        SplittableRandom rng = TestRandomizer.newRandom();
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        TestCatalogues.randomStars(rng, 100).forEach(builder::addStar);
+        for (int i = 0; i < 20; i++) {
+            builder.addPulsar(new Pulsar("J" + i, EquatorialCoordinates.of(rng.nextDouble(0, 6), rng.nextDouble(-1, 1)),
+                    rng.nextDouble(), rng.nextDouble(), rng.nextDouble(), rng.nextDouble(), 20));
+        }
+        byte[] bytes = compile(builder);
+
+        List<byte[]> corruptedFiles = new ArrayList<>();
+        for (int length : new int[]{bytes.length - 1, bytes.length - 20 * Double.BYTES, bytes.length - 100}) {
+            corruptedFiles.add(Arrays.copyOf(bytes, length));
+        }
+        // The end of the name of the last star, moved so that the names of the stars take the bytes of the pulsars
+        int lastNameEnd = 16 + 100 * (Integer.BYTES + 2 * Double.BYTES + 2 * Float.BYTES) + 99 * Integer.BYTES;
+        byte[] longNames = bytes.clone();
+        ByteBuffer.wrap(longNames).putInt(lastNameEnd, bytes.length - lastNameEnd - Integer.BYTES - Double.BYTES);
+        corruptedFiles.add(longNames);
+
+        for (byte[] corrupted : corruptedFiles) {
+            StarCatalogue.Builder loaded = new StarCatalogue.Builder();
+            assertThrows(IOException.class, () -> loaded.loadFrom(new ByteArrayInputStream(corrupted), BinaryCatalogueLoader.INSTANCE));
+            assertTrue(loaded.stars().isEmpty());
+            assertTrue(loaded.pulsars().isEmpty());
+        }
+    }
+}
@@ -45,4 +45,15 @@ class BlackBodyColorTest {
             BlackBodyColor.colorForTemperature(4);
         });
     }
+
+    @Test
+    void colorsForTemperaturesGivesTheColorOfEachTemperature() {
+        int[] temperatures = {3750, 10500, 1000, 40000, 1049, 1951};
+        Color[] colors = BlackBodyColor.colorsForTemperatures(temperatures);
+        assertEquals(temperatures.length, colors.length);
+        for (int i = 0; i < temperatures.length; i++) {
+            assertEquals(BlackBodyColor.colorForTemperature(temperatures[i]), colors[i]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> BlackBodyColor.colorsForTemperatures(new int[]{5000, 999}));
+    }
 }
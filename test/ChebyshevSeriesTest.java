@@ -0,0 +1,73 @@
+import ch.epfl.rigel.math.ChebyshevSeries;
+import ch.epfl.rigel.math.ClosedInterval;
+import ch.epfl.rigel.math.Polynomial;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChebyshevSeriesTest {
+
+    private static ChebyshevSeries interpolate(ClosedInterval interval, int count, java.util.function.DoubleUnaryOperator f) {
+        double[] nodes = ChebyshevSeries.nodes(interval, count);
+        double[] values = new double[count];
+        for (int k = 0; k < count; k++) {
+            values[k] = f.applyAsDouble(nodes[k]);
+        }
+        return ChebyshevSeries.interpolating(interval, values);
+    }
+
+    @Test
+    void nodesAreInsideTheInterval() {
+        ClosedInterval interval = ClosedInterval.of(-3, 10);
+        double[] nodes = ChebyshevSeries.nodes(interval, 9);
+        assertEquals(9, nodes.length);
+        for (int k = 0; k < nodes.length; k++) {
+            assertTrue(interval.contains(nodes[k]));
+            if (k > 0) {
+                assertTrue(nodes[k] < nodes[k - 1]);
+            }
+        }
+        // An odd number of nodes contains the center of the interval
+        assertEquals(3.5, nodes[4], 1e-12);
+    }
+
+    @Test
+    void interpolatingIsExactOnPolynomials() {
+        Polynomial polynomial = Polynomial.of(1, -6, 3, 10);
+        ClosedInterval interval = ClosedInterval.of(-2, 6);
+        ChebyshevSeries series = interpolate(interval, 4, polynomial::at);
+        assertEquals(3, series.degree());
+        for (double x = -2; x <= 6; x += 0.25) {
+            assertEquals(polynomial.at(x), series.at(x), 1e-12);
+        }
+    }
+
+    @Test
+    void interpolatingConvergesOnSmoothFunctions() {
+        ClosedInterval interval = ClosedInterval.of(100, 104);
+        double previousError = Double.POSITIVE_INFINITY;
+        for (int count : new int[]{4, 8, 12, 16}) {
+            ChebyshevSeries series = interpolate(interval, count, Math::sin);
+            double error = 0;
+            for (double x = 100; x <= 104; x += 0.01) {
+                error = Math.max(error, Math.abs(Math.sin(x) - series.at(x)));
+            }
+            assertTrue(error < previousError);
+            previousError = error;
+        }
+        assertTrue(previousError < 1e-12);
+    }
+
+    @Test
+    void interpolatingFailsWithoutValues() {
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevSeries.interpolating(ClosedInterval.of(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevSeries.nodes(ClosedInterval.of(0, 1), 0));
+    }
+
+    @Test
+    void equalsAndHashCodeThrowUOE() {
+        ChebyshevSeries series = ChebyshevSeries.interpolating(ClosedInterval.of(0, 1), 1);
+        assertThrows(UnsupportedOperationException.class, () -> series.equals(series));
+        assertThrows(UnsupportedOperationException.class, series::hashCode);
+    }
+}
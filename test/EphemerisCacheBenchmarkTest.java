@@ -0,0 +1,41 @@
+import ch.epfl.rigel.astronomy.Ephemerides;
+import ch.epfl.rigel.astronomy.EphemerisCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.*;
+
+/**
+ * Timings of the ephemerides with and without the cache, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+class EphemerisCacheBenchmarkTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+
+    @Test
+    void timeLapseThroughTheCache() {
+        // An hour per frame, as with the fastest accelerators
+        int frames = 20_000;
+        EphemerisCache cache = new EphemerisCache();
+        long exactTime = Long.MAX_VALUE;
+        long cachedTime = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                new Ephemerides(START.plusHours(i));
+            }
+            exactTime = Math.min(exactTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                new Ephemerides(START.plusHours(i), cache);
+            }
+            cachedTime = Math.min(cachedTime, System.nanoTime() - start);
+        }
+
+        System.out.printf("Ephemerides of %d hourly frames: models %.2f ms, cache %.2f ms%n", frames, exactTime / 1e6, cachedTime / 1e6);
+    }
+}
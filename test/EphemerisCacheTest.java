@@ -0,0 +1,81 @@
+import ch.epfl.rigel.astronomy.*;
+import ch.epfl.rigel.coordinates.EclipticToEquatorialConversion;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EphemerisCacheTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+
+    private static double angularDistance(EquatorialCoordinates c1, EquatorialCoordinates c2) {
+        double dx = Math.cos(c1.dec()) * Math.cos(c1.ra()) - Math.cos(c2.dec()) * Math.cos(c2.ra());
+        double dy = Math.cos(c1.dec()) * Math.sin(c1.ra()) - Math.cos(c2.dec()) * Math.sin(c2.ra());
+        double dz = Math.sin(c1.dec()) - Math.sin(c2.dec());
+        return 2 * Math.asin(Math.sqrt(dx * dx + dy * dy + dz * dz) / 2);
+    }
+
+    @Test
+    void cacheMatchesTheModelsBetween1900And2100() {
+        EphemerisCache cache = new EphemerisCache();
+        SplittableRandom random = new SplittableRandom(2020);
+        ZonedDateTime from = ZonedDateTime.of(LocalDate.of(1900, Month.JANUARY, 1), LocalTime.MIDNIGHT, ZoneOffset.UTC);
+        long span = Duration.between(from, from.plusYears(200)).toMillis();
+
+        for (int i = 0; i < 2_000; i++) {
+            ZonedDateTime when = from.plus(Duration.ofMillis(random.nextLong(span)));
+            double days = Epoch.J2010.daysUntil(when);
+            EclipticToEquatorialConversion eclToEqu = new EclipticToEquatorialConversion(when);
+
+            Sun sun = SunModel.SUN.at(days, eclToEqu);
+            Sun cachedSun = cache.sunAt(days);
+            assertTrue(angularDistance(sun.equatorialPos(), cachedSun.equatorialPos()) < EphemerisCache.POSITION_ACCURACY);
+            assertEquals(sun.eclipticPos().lon(), cachedSun.eclipticPos().lon(), EphemerisCache.POSITION_ACCURACY);
+            assertEquals(sun.angularSize(), cachedSun.angularSize(), 1e-6 * sun.angularSize());
+
+            Moon moon = MoonModel.MOON.at(days, eclToEqu);
+            Moon cachedMoon = cache.moonAt(days);
+            assertTrue(angularDistance(moon.equatorialPos(), cachedMoon.equatorialPos()) < EphemerisCache.POSITION_ACCURACY);
+            assertEquals(moon.angularSize(), cachedMoon.angularSize(), 1e-6 * moon.angularSize());
+            assertEquals(moon.phase(), cachedMoon.phase(), 1e-6);
+
+            for (PlanetModel model : PlanetModel.values()) {
+                if (model == PlanetModel.EARTH) {
+                    continue;
+                }
+                Planet planet = model.at(days, eclToEqu);
+                Planet cachedPlanet = cache.planetAt(model, days);
+                assertEquals(planet.name(), cachedPlanet.name());
+                assertTrue(angularDistance(planet.equatorialPos(), cachedPlanet.equatorialPos()) < EphemerisCache.POSITION_ACCURACY);
+                assertEquals(planet.angularSize(), cachedPlanet.angularSize(), 1e-6 * planet.angularSize());
+                if (planet.magnitude() < 2) {
+                    assertEquals(planet.magnitude(), cachedPlanet.magnitude(), 1e-3);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cachedEphemeridesHaveTheSameObjects() {
+        Ephemerides exact = new Ephemerides(START);
+        Ephemerides cached = new Ephemerides(START, new EphemerisCache());
+
+        assertEquals(exact.sun().name(), cached.sun().name());
+        assertEquals(exact.moon().name(), cached.moon().name());
+        assertEquals(exact.planets().length, cached.planets().length);
+        for (int i = 0; i < exact.planets().length; i++) {
+            assertEquals(exact.planets()[i].name(), cached.planets()[i].name());
+            assertTrue(angularDistance(exact.planets()[i].equatorialPos(), cached.planets()[i].equatorialPos())
+                    < EphemerisCache.POSITION_ACCURACY);
+        }
+    }
+
+    @Test
+    void planetAtFailsForTheEarth() {
+        assertThrows(IllegalArgumentException.class, () -> new EphemerisCache().planetAt(PlanetModel.EARTH, 0));
+    }
+}
@@ -0,0 +1,131 @@
+import ch.epfl.rigel.coordinates.*;
+import ch.epfl.rigel.math.Angle;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class EquatorialToCanvasKernelTest {
+
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.FEBRUARY, 17), LocalTime.of(13, 15), ZoneOffset.ofHours(1));
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+
+    @Test
+    void kernelMatchesConversionAndProjection() {
+        SplittableRandom rng = TestRandomizer.newRandom();
+        int n = TestRandomizer.RANDOM_ITERATIONS;
+        double[] ra = new double[n], dec = new double[n], plane = new double[2 * n];
+        float[] canvas = new float[2 * n];
+        byte[] flags = new byte[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+        }
+
+        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(WHEN, WHERE);
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(120, 30));
+        double scale = 1300, width = 800, height = 600;
+        new EquatorialToCanvasKernel(equToHor, projection, scale, width, height).apply(ra, dec, plane, canvas, flags, 0, n);
+
+        for (int i = 0; i < n; i++) {
+            HorizontalCoordinates hor = equToHor.apply(EquatorialCoordinates.of(ra[i], dec[i]));
+            CartesianCoordinates xy = projection.apply(hor);
+            if (Math.abs(xy.x()) > 1e6 || Math.abs(xy.y()) > 1e6)
+                continue;
+            assertEquals(xy.x(), plane[2 * i], 1e-9 * Math.max(1, Math.abs(xy.x())));
+            assertEquals(xy.y(), plane[2 * i + 1], 1e-9 * Math.max(1, Math.abs(xy.y())));
+
+            double canvasX = width / 2 + scale * xy.x();
+            double canvasY = height / 2 - scale * xy.y();
+            assertEquals(canvasX, canvas[2 * i], 1e-6 * Math.max(1, Math.abs(canvasX)));
+            assertEquals(canvasY, canvas[2 * i + 1], 1e-6 * Math.max(1, Math.abs(canvasY)));
+
+            assertEquals(hor.alt() < 0, (flags[i] & EquatorialToCanvasKernel.BELOW_HORIZON) != 0);
+            boolean outside = Math.abs(canvasX - width / 2) > width / 2 + EquatorialToCanvasKernel.CANVAS_MARGIN
+                    || Math.abs(canvasY - height / 2) > height / 2 + EquatorialToCanvasKernel.CANVAS_MARGIN;
+            assertEquals(outside, (flags[i] & EquatorialToCanvasKernel.OUTSIDE_CANVAS) != 0);
+        }
+    }
+
+    @Test
+    void kernelFailsOnInvalidArguments() {
+        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(WHEN, WHERE);
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(120, 30));
+        assertThrows(IllegalArgumentException.class, () -> new EquatorialToCanvasKernel(equToHor, projection, 0, 800, 600));
+        EquatorialToCanvasKernel kernel = new EquatorialToCanvasKernel(equToHor, projection, 1, 800, 600);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> kernel.apply(new double[4], new double[4], new double[8], new float[6], new byte[4], 0, 4));
+    }
+
+    // Bound of the relative difference between the positions computed from the angles and from the unit vectors,
+    // for the points projected at less than MAX_PLANE_DISTANCE of the center
+    private static final double RELATIVE_ERROR = 1e-12;
+    private static final double MAX_PLANE_DISTANCE = 1e3;
+
+    private static void assertSamePositions(double[] ra, double[] dec, int from, int to) {
+        int n = ra.length;
+        double[] x = new double[n], y = new double[n], z = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.cos(dec[i]) * Math.cos(ra[i]);
+            y[i] = Math.cos(dec[i]) * Math.sin(ra[i]);
+            z[i] = Math.sin(dec[i]);
+        }
+        EquatorialToCanvasKernel kernel = new EquatorialToCanvasKernel(new EquatorialToHorizontalConversion(WHEN, WHERE),
+                new StereographicProjection(HorizontalCoordinates.ofDeg(300, 60)), 900, 1024, 768);
+
+        double[] planeFromAngles = new double[2 * n], planeFromVectors = new double[2 * n];
+        float[] canvasFromAngles = new float[2 * n], canvasFromVectors = new float[2 * n];
+        byte[] flagsFromAngles = new byte[n], flagsFromVectors = new byte[n];
+        kernel.apply(ra, dec, planeFromAngles, canvasFromAngles, flagsFromAngles, from, to);
+        kernel.applyToUnitVectors(x, y, z, planeFromVectors, canvasFromVectors, flagsFromVectors, from, to);
+
+        for (int i = 0; i < n; i++) {
+            if (i < from || i >= to) {
+                assertEquals(0, planeFromVectors[2 * i]);
+                assertEquals(0, flagsFromVectors[i]);
+                continue;
+            }
+            double planeX = planeFromAngles[2 * i], planeY = planeFromAngles[2 * i + 1];
+            if (Math.hypot(planeX, planeY) > MAX_PLANE_DISTANCE)
+                continue;
+            assertEquals(planeX, planeFromVectors[2 * i], RELATIVE_ERROR * Math.max(1, Math.abs(planeX)));
+            assertEquals(planeY, planeFromVectors[2 * i + 1], RELATIVE_ERROR * Math.max(1, Math.abs(planeY)));
+            assertEquals(canvasFromAngles[2 * i], canvasFromVectors[2 * i], 1e-3);
+            assertEquals(canvasFromAngles[2 * i + 1], canvasFromVectors[2 * i + 1], 1e-3);
+            assertEquals(flagsFromAngles[i], flagsFromVectors[i]);
+        }
+    }
+
+    private static double[][] randomAngles(SplittableRandom rng, int n) {
+        double[] ra = new double[n], dec = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+        }
+        return new double[][]{ra, dec};
+    }
+
+    @Test
+    void unitVectorsGiveTheSamePositions() {
+        double[][] angles = randomAngles(TestRandomizer.newRandom(), TestRandomizer.RANDOM_ITERATIONS);
+        assertSamePositions(angles[0], angles[1], 0, TestRandomizer.RANDOM_ITERATIONS);
+    }
+
+    @Test
+    void vectorizedKernelMatchesScalarKernel() {
+        // Only run when the vector source folder is compiled and run with --add-modules jdk.incubator.vector
+        assumeTrue(EquatorialToCanvasKernel.isVectorized());
+        SplittableRandom rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 200; i++) {
+            // Ranges that aren't multiples of the number of lanes, to also test the scalar tail
+            int n = rng.nextInt(1, 100);
+            int from = rng.nextInt(0, n);
+            int to = rng.nextInt(from, n + 1);
+            double[][] angles = randomAngles(rng, n);
+            assertSamePositions(angles[0], angles[1], from, to);
+        }
+    }
+}
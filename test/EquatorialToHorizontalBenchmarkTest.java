@@ -0,0 +1,117 @@
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToCanvasKernel;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import ch.epfl.rigel.math.Angle;
+import javafx.scene.transform.Affine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.*;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Timings of the conversions of many equatorial coordinates, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class EquatorialToHorizontalBenchmarkTest {
+
+    private static final int COUNT = 100_000;
+    private static final int RUNS = 20;
+
+    @Test
+    void timeApplyAllAgainstApply() {
+        SplittableRandom rng = TestRandomizer.newRandom();
+        double[] ra = new double[COUNT], dec = new double[COUNT], az = new double[COUNT], alt = new double[COUNT];
+        EquatorialCoordinates[] equ = new EquatorialCoordinates[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+            equ[i] = EquatorialCoordinates.of(ra[i], dec[i]);
+        }
+        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(
+                ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC),
+                GeographicCoordinates.ofDeg(6.57, 46.52));
+
+        long perObject = Long.MAX_VALUE;
+        long bulk = Long.MAX_VALUE;
+        double sink = 0;
+        for (int r = 0; r < RUNS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                HorizontalCoordinates hor = equToHor.apply(equ[i]);
+                az[i] = hor.az();
+                alt[i] = hor.alt();
+            }
+            perObject = Math.min(perObject, System.nanoTime() - start);
+            sink += az[r];
+
+            start = System.nanoTime();
+            equToHor.applyAll(ra, dec, az, alt);
+            bulk = Math.min(bulk, System.nanoTime() - start);
+            sink += az[r];
+        }
+
+        // Both are dominated by the trigonometry, the bulk path saves the allocations and interval checks
+        System.out.printf("Equatorial to horizontal of 10^5 objects: apply %.2f ms, applyAll %.2f ms%n",
+                perObject / 1e6, bulk / 1e6);
+        assertTrue(Double.isFinite(sink));
+    }
+
+    @Test
+    void timeFusedKernelAgainstStagedPath() {
+        SplittableRandom rng = TestRandomizer.newRandom();
+        double[] ra = new double[COUNT], dec = new double[COUNT], plane = new double[2 * COUNT], staged = new double[2 * COUNT];
+        double[] x = new double[COUNT], y = new double[COUNT], z = new double[COUNT];
+        float[] canvas = new float[2 * COUNT];
+        byte[] flags = new byte[COUNT];
+        EquatorialCoordinates[] equ = new EquatorialCoordinates[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+            equ[i] = EquatorialCoordinates.of(ra[i], dec[i]);
+            x[i] = Math.cos(dec[i]) * Math.cos(ra[i]);
+            y[i] = Math.cos(dec[i]) * Math.sin(ra[i]);
+            z[i] = Math.sin(dec[i]);
+        }
+        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(
+                ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC),
+                GeographicCoordinates.ofDeg(6.57, 46.52));
+        StereographicProjection projection = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15));
+        EquatorialToCanvasKernel kernel = new EquatorialToCanvasKernel(equToHor, projection, 1300, 800, 600);
+        Affine planeToCanvas = new Affine(1300, 0, 400, 0, -1300, 300);
+
+        long stagedTime = Long.MAX_VALUE;
+        long fusedTime = Long.MAX_VALUE;
+        long rotationTime = Long.MAX_VALUE;
+        for (int r = 0; r < RUNS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; i++) {
+                CartesianCoordinates xy = projection.apply(equToHor.apply(equ[i]));
+                plane[2 * i] = xy.x();
+                plane[2 * i + 1] = xy.y();
+            }
+            planeToCanvas.transform2DPoints(plane, 0, staged, 0, COUNT);
+            stagedTime = Math.min(stagedTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            kernel.apply(ra, dec, plane, canvas, flags, 0, COUNT);
+            fusedTime = Math.min(fusedTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            kernel.applyToUnitVectors(x, y, z, plane, canvas, flags, 0, COUNT);
+            rotationTime = Math.min(rotationTime, System.nanoTime() - start);
+        }
+
+        // Run with and without --add-modules jdk.incubator.vector to compare the vectorized and scalar unit vectors
+        System.out.printf("Equatorial to canvas of 10^5 objects: staged %.2f ms, fused kernel %.2f ms, unit vectors %.2f ms (%s)%n",
+                stagedTime / 1e6, fusedTime / 1e6, rotationTime / 1e6, EquatorialToCanvasKernel.isVectorized() ? "vectorized" : "scalar");
+    }
+}
@@ -4,9 +4,11 @@ import ch.epfl.rigel.coordinates.GeographicCoordinates;
 import ch.epfl.rigel.math.Angle;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.time.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class EquatorialToHorizontalConversionTest {
     private static final GeographicCoordinates EPFL =
@@ -78,4 +80,63 @@ class EquatorialToHorizontalConversionTest {
             new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, EPFL).hashCode();
         });
     }
+
+    @Test
+    void e2hInverseApplyIsInverseOfApply() {
+        var rng = TestRandomizer.newRandom();
+        var equToHor = new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, EPFL);
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var equ = EquatorialCoordinates.of(rng.nextDouble(0, Angle.TAU), rng.nextDouble(-1.5, 1.5));
+            var back = equToHor.inverseApply(equToHor.apply(equ));
+            assertEquals(0, Angle.normalizePositive(back.ra() - equ.ra() + 1) - 1, 1e-9);
+            assertEquals(equ.dec(), back.dec(), 1e-9);
+        }
+    }
+
+    @Test
+    void e2hApplyAllMatchesApply() {
+        var rng = TestRandomizer.newRandom();
+        var equToHor = new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, EPFL);
+        int n = TestRandomizer.RANDOM_ITERATIONS;
+        double[] ra = new double[n], dec = new double[n], az = new double[n], alt = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+        }
+        equToHor.applyAll(ra, dec, az, alt);
+        for (int i = 0; i < n; i++) {
+            var hor = equToHor.apply(EquatorialCoordinates.of(ra[i], dec[i]));
+            assertEquals(hor.az(), az[i], 1e-12);
+            assertEquals(hor.alt(), alt[i], 1e-12);
+        }
+    }
+
+    @Test
+    void e2hApplyAllFailsOnInvalidArrays() {
+        var equToHor = new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, EPFL);
+        assertThrows(IllegalArgumentException.class, () -> equToHor.applyAll(new double[2], new double[2], new double[1], new double[2]));
+        assertThrows(IndexOutOfBoundsException.class, () -> equToHor.applyAll(new double[2], new double[2], new double[2], new double[2], 1, 3));
+    }
+
+    @Test
+    void e2hApplyAllDoesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        var rng = TestRandomizer.newRandom();
+        var equToHor = new EquatorialToHorizontalConversion(ZDT_SEMESTER_START, EPFL);
+        int n = 10_000;
+        double[] ra = new double[n], dec = new double[n], az = new double[n], alt = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = rng.nextDouble(0, Angle.TAU);
+            dec[i] = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+        }
+        equToHor.applyAll(ra, dec, az, alt);
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        equToHor.applyAll(ra, dec, az, alt);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        // A single object per conversion would take at least 16 bytes
+        assertTrue(allocated < n, allocated + " bytes allocated");
+    }
 }
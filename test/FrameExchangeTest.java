@@ -0,0 +1,76 @@
+import ch.epfl.rigel.gui.FrameExchange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameExchangeTest {
+
+    @Test
+    void takeGivesTheLastOfferedFrame() {
+        var released = new ArrayList<String>();
+        var exchange = new FrameExchange<String>(released::add);
+        assertNull(exchange.take());
+
+        assertTrue(exchange.offer("a"));
+        assertEquals("a", exchange.take());
+        assertNull(exchange.take());
+
+        assertTrue(exchange.offer("b"));
+        assertFalse(exchange.offer("c"));
+        assertEquals("c", exchange.take());
+        assertEquals(List.of("b"), released);
+        assertEquals(3, exchange.offeredFrames());
+        assertEquals(1, exchange.droppedFrames());
+    }
+
+    @Test
+    void shownFramesAreReleasedOnceTheNextOneIsShown() {
+        var released = new ArrayList<String>();
+        var exchange = new FrameExchange<String>(released::add);
+        for (var frame : List.of("a", "b", "c", "d")) {
+            exchange.offer(frame);
+            exchange.take();
+        }
+        assertEquals(List.of("a", "b"), released);
+        assertEquals(0, exchange.droppedFrames());
+    }
+
+    @Test
+    void everyFrameIsEitherTakenOrReleasedAcrossThreads() throws InterruptedException {
+        var released = new AtomicInteger();
+        var exchange = new FrameExchange<Integer>(f -> released.incrementAndGet());
+        int count = 100_000;
+        var done = new CountDownLatch(1);
+        var worker = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                exchange.offer(i);
+            }
+            done.countDown();
+        });
+        worker.start();
+
+        int last = -1;
+        int taken = 0;
+        while (done.getCount() > 0 || last != count - 1) {
+            Integer frame = exchange.take();
+            if (frame != null) {
+                assertTrue(frame > last);
+                last = frame;
+                taken++;
+            }
+        }
+        worker.join();
+        assertEquals(count, exchange.offeredFrames());
+        assertEquals(count, taken + exchange.droppedFrames());
+        // The last two shown frames are still kept
+        assertEquals(exchange.droppedFrames() + taken - 2, released.get());
+    }
+}
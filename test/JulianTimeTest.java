@@ -0,0 +1,95 @@
+import ch.epfl.rigel.astronomy.Ephemerides;
+import ch.epfl.rigel.astronomy.Epoch;
+import ch.epfl.rigel.astronomy.JulianTime;
+import ch.epfl.rigel.astronomy.SiderealTime;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JulianTimeTest {
+
+    private static ZonedDateTime randomMoment(SplittableRandom rng) {
+        long epochMilli = rng.nextLong(-2_208_988_800_000L, 4_102_444_800_000L);
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(rng.nextInt(-12, 15) * 3600);
+        return Instant.ofEpochMilli(epochMilli).atZone(offset);
+    }
+
+    @Test
+    void ofGivesTheDaysSinceJ2000() {
+        assertEquals(0, JulianTime.of(ZonedDateTime.parse("2000-01-01T12:00Z")));
+        assertEquals(3651.5, JulianTime.of(ZonedDateTime.parse("2009-12-31T00:00Z")));
+        assertEquals(3651.5, JulianTime.of(ZonedDateTime.parse("2009-12-31T02:00+02:00")));
+        assertEquals(-0.5, JulianTime.ofEpochMilli(946_684_800_000L));
+        assertEquals(3651.5, Epoch.J2010.julianTime());
+    }
+
+    @Test
+    void julianDateIsCorrectOnBookExample() {
+        // PACS4, §4 : 2009-06-19T18:00Z has the julian date 2455002.25
+        var t = JulianTime.of(ZonedDateTime.parse("2009-06-19T18:00Z"));
+        assertEquals(2455002.25, JulianTime.julianDate(t));
+    }
+
+    @Test
+    void epochOverloadsAgreeWithZonedDateTime() {
+        var rng = new SplittableRandom(2020);
+        for (int i = 0; i < 1000; i++) {
+            var when = randomMoment(rng);
+            var t = JulianTime.of(when);
+            for (Epoch epoch : Epoch.values()) {
+                assertEquals(epoch.daysUntil(when), epoch.daysUntil(t), 1e-9);
+                assertEquals(epoch.julianCenturiesUntil(when), epoch.julianCenturiesUntil(t), 1e-13);
+            }
+        }
+    }
+
+    @Test
+    void siderealTimeAgreesWithZonedDateTime() {
+        var rng = new SplittableRandom(2021);
+        var where = GeographicCoordinates.ofDeg(6.57, 46.52);
+        for (int i = 0; i < 1000; i++) {
+            var when = randomMoment(rng);
+            var t = JulianTime.of(when);
+            assertEquals(SiderealTime.greenwich(when), SiderealTime.greenwich(t), 1e-8);
+            assertEquals(SiderealTime.local(when, where), SiderealTime.local(t, where), 1e-8);
+        }
+    }
+
+    @Test
+    void siderealTimeAgreesAtMidnight() {
+        var where = GeographicCoordinates.ofDeg(-70, -30);
+        for (var when : new ZonedDateTime[]{ZonedDateTime.parse("1999-12-31T00:00Z"),
+                ZonedDateTime.parse("2020-02-29T23:59:59.999Z"), ZonedDateTime.parse("2020-03-01T00:00+01:00")}) {
+            var t = JulianTime.of(when);
+            assertEquals(SiderealTime.greenwich(when), SiderealTime.greenwich(t), 1e-8);
+            assertEquals(SiderealTime.local(when, where), SiderealTime.local(t, where), 1e-8);
+        }
+    }
+
+    @Test
+    void conversionsAndEphemeridesAgreeWithZonedDateTime() {
+        var rng = new SplittableRandom(2022);
+        var where = GeographicCoordinates.ofDeg(-122.4, 37.8);
+        var equ = EquatorialCoordinates.of(1.2, 0.3);
+        for (int i = 0; i < 50; i++) {
+            var when = randomMoment(rng);
+            var t = JulianTime.of(when);
+            var expectedHor = new EquatorialToHorizontalConversion(when, where).apply(equ);
+            var actualHor = new EquatorialToHorizontalConversion(t, where).apply(equ);
+            assertEquals(expectedHor.az(), actualHor.az(), 1e-8);
+            assertEquals(expectedHor.alt(), actualHor.alt(), 1e-8);
+
+            var expected = new Ephemerides(when);
+            var actual = new Ephemerides(t);
+            assertEquals(expected.moon().equatorialPos().ra(), actual.moon().equatorialPos().ra(), 1e-9);
+            assertEquals(expected.sun().equatorialPos().dec(), actual.sun().equatorialPos().dec(), 1e-9);
+            assertEquals(expected.planets()[3].equatorialPos().ra(), actual.planets()[3].equatorialPos().ra(), 1e-9);
+        }
+    }
+}
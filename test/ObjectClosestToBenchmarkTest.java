@@ -0,0 +1,98 @@
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.*;
+import java.util.SplittableRandom;
+
+/**
+ * Timings of objectClosestTo against a linear scan, and of the index it queries, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class ObjectClosestToBenchmarkTest {
+
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private static final StereographicProjection PROJECTION = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15));
+    // 10 pixels on a 800 pixels wide canvas with a field of view of 100°
+    private static final double RADIUS = 10 / (800 / PROJECTION.applyToAngle(Math.toRadians(100)));
+    private static final int QUERIES = 10_000;
+
+    private static ObservedSky sky(int starCount) {
+        return new ObservedSky(WHEN, WHERE, PROJECTION, TestCatalogues.randomCatalogue(starCount));
+    }
+
+    private static CartesianCoordinates[] mousePositions(SplittableRandom rng) {
+        CartesianCoordinates[] positions = new CartesianCoordinates[QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+            positions[i] = CartesianCoordinates.of(rng.nextDouble(-1, 1), rng.nextDouble(-0.75, 0.75));
+        return positions;
+    }
+
+    private static double bruteForceDistance(ObservedSky sky, CartesianCoordinates p) {
+        double best = Double.POSITIVE_INFINITY;
+        double[] xy = sky.starPosition();
+        for (int i = 0; i < xy.length / 2; i++)
+            best = Math.min(best, Math.hypot(xy[2 * i] - p.x(), xy[2 * i + 1] - p.y()));
+        return best;
+    }
+
+    private static long bestHoverNanos(ObservedSky sky, CartesianCoordinates[] positions) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < 5; r++) {
+            long start = System.nanoTime();
+            for (CartesianCoordinates p : positions)
+                sky.objectClosestTo(p, RADIUS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / positions.length;
+    }
+
+    // The layers being already computed, computeLayers(RADIUS) only builds the index of the objects
+    private static long indexNanos(int starCount) {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(starCount);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < 5; r++) {
+            ObservedSky sky = new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).computeLayers();
+            long start = System.nanoTime();
+            sky.computeLayers(RADIUS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @Test
+    void timeIndexConstruction() {
+        indexNanos(10_000);
+        System.out.printf("Index of objectClosestTo: 10^4 objects %.2f ms, 10^6 objects %.2f ms%n",
+                indexNanos(10_000) / 1e6, indexNanos(1_000_000) / 1e6);
+    }
+
+    @Test
+    void timeHoverAgainstLinearScan() {
+        CartesianCoordinates[] positions = mousePositions(TestRandomizer.newRandom());
+
+        // The objects are indexed beforehand, as by the observation thread
+        ObservedSky small = sky(10_000).computeLayers(RADIUS);
+        bestHoverNanos(small, positions);
+        long smallNanos = bestHoverNanos(small, positions);
+
+        ObservedSky large = sky(1_000_000).computeLayers(RADIUS);
+        long largeNanos = bestHoverNanos(large, positions);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++)
+            bruteForceDistance(large, positions[i]);
+        long scanNanos = (System.nanoTime() - start) / 100;
+
+        System.out.printf("objectClosestTo: 10^4 objects %d ns, 10^6 objects %d ns, linear scan of 10^6 objects %d ns%n",
+                smallNanos, largeNanos, scanNanos);
+    }
+}
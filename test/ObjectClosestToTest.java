@@ -0,0 +1,67 @@
+import ch.epfl.rigel.astronomy.CelestialObject;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.CartesianCoordinates;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectClosestToTest {
+
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private static final StereographicProjection PROJECTION = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15));
+    // 10 pixels on a 800 pixels wide canvas with a field of view of 100°
+    private static final double RADIUS = 10 / (800 / PROJECTION.applyToAngle(Math.toRadians(100)));
+
+    private static double bruteForceDistance(ObservedSky sky, CartesianCoordinates p) {
+        double best = Double.POSITIVE_INFINITY;
+        double[] xy = sky.starPosition();
+        for (int i = 0; i < xy.length / 2; i++)
+            best = Math.min(best, Math.hypot(xy[2 * i] - p.x(), xy[2 * i + 1] - p.y()));
+        return best;
+    }
+
+    @Test
+    void objectClosestToFindsTheClosestStar() {
+        // Without planets, sun and moon near the queried points, the closest object is the closest star
+        SplittableRandom rng = TestRandomizer.newRandom();
+        ObservedSky sky = new ObservedSky(WHEN, WHERE, PROJECTION, TestCatalogues.randomCatalogue(20_000));
+        for (int i = 0; i < 2_000; i++) {
+            CartesianCoordinates p = CartesianCoordinates.of(rng.nextDouble(-1, 1), rng.nextDouble(-1, 1));
+            double expected = bruteForceDistance(sky, p);
+            Optional<CelestialObject> closest = sky.objectClosestTo(p, RADIUS);
+            if (expected > RADIUS) {
+                assertTrue(closest.isEmpty() || !(closest.get() instanceof Star));
+            } else if (closest.get() instanceof Star) {
+                int slot = Arrays.asList(sky.stars()).indexOf(closest.get());
+                double[] xy = sky.starPosition();
+                assertEquals(expected, Math.hypot(xy[2 * slot] - p.x(), xy[2 * slot + 1] - p.y()), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void objectsIndexedBeforehandGiveTheSameAnswers() {
+        SplittableRandom rng = TestRandomizer.newRandom();
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(5_000);
+        ObservedSky indexed = new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).computeLayers(RADIUS);
+        ObservedSky lazy = new ObservedSky(WHEN, WHERE, PROJECTION, catalogue);
+        for (int i = 0; i < 1_000; i++) {
+            CartesianCoordinates p = CartesianCoordinates.of(rng.nextDouble(-1, 1), rng.nextDouble(-1, 1));
+            assertEquals(lazy.objectClosestTo(p, RADIUS).map(CelestialObject::name), indexed.objectClosestTo(p, RADIUS).map(CelestialObject::name));
+        }
+        assertThrows(IllegalArgumentException.class, () -> lazy.computeLayers(-1));
+    }
+}
@@ -0,0 +1,134 @@
+import ch.epfl.rigel.astronomy.Ephemerides;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.ProjectedSky;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Timings of the observation of the sky, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class ObservedSkyBenchmarkTest {
+
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private static final StereographicProjection PROJECTION = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15));
+
+    private static long bestFrameNanos(StarCatalogue catalogue) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).computeLayers();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @Test
+    void timeObservedSkyAgainstCatalogueSize() {
+        StarCatalogue small = TestCatalogues.randomCatalogue(10_000);
+        StarCatalogue large = TestCatalogues.randomCatalogue(100_000);
+
+        bestFrameNanos(small);
+        long smallTime = bestFrameNanos(small);
+        long largeTime = bestFrameNanos(large);
+
+        // A quadratic construction would be about 100 times slower, a linear one about 10 times
+        System.out.printf("ObservedSky: 10^4 stars %.2f ms, 10^5 stars %.2f ms%n", smallTime / 1e6, largeTime / 1e6);
+    }
+
+    @Test
+    void timeCulledSkyAgainstWholeSky() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(1_000_000);
+
+        long wholeTime = Long.MAX_VALUE;
+        long culledTime = Long.MAX_VALUE;
+        for (int i = 0; i < 30; i++) {
+            long start = System.nanoTime();
+            new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).computeLayers();
+            wholeTime = Math.min(wholeTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            // A 30° field of view on a 800x600 canvas sees a cone of about 25°
+            new ObservedSky(WHEN, WHERE, PROJECTION, catalogue, Math.toRadians(25)).computeLayers();
+            culledTime = Math.min(culledTime, System.nanoTime() - start);
+        }
+
+        // The cone covers less than 5% of the sphere, the sun, moon and planets being observed in both cases
+        System.out.printf("ObservedSky of 10^6 stars: whole sky %.2f ms, 25° cone %.2f ms%n", wholeTime / 1e6, culledTime / 1e6);
+    }
+
+    @Test
+    void timeFrameAgainstCoreCount() throws InterruptedException, ExecutionException {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(1_000_000);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism : new int[]{1, 2, 4, cores}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < 10; i++) {
+                    long start = System.nanoTime();
+                    pool.submit(() -> new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).computeLayers()).get();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("ObservedSky of 10^6 stars on %d of %d cores: %.2f ms%n", parallelism, cores, best / 1e6);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void timeZoomAgainstObservation() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(100_000);
+
+        long observeTime = Long.MAX_VALUE;
+        long zoomTime = Long.MAX_VALUE;
+        for (int i = 0; i < 50; i++) {
+            double scale = 1000 + i;
+            long start = System.nanoTime();
+            ProjectedSky projected = new ProjectedSky(new Ephemerides(WHEN), new EquatorialToHorizontalConversion(WHEN, WHERE),
+                    PROJECTION, catalogue, Math.PI, scale, 800, 600);
+            new ObservedSky(projected, scale, 800, 600).computeLayers();
+            observeTime = Math.min(observeTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            new ObservedSky(projected, scale * 1.1, 800, 600).computeLayers();
+            zoomTime = Math.min(zoomTime, System.nanoTime() - start);
+        }
+
+        System.out.printf("ObservedSky of 10^5 stars: observed %.2f ms, zoomed %.2f ms%n", observeTime / 1e6, zoomTime / 1e6);
+    }
+
+    @Test
+    void timePlanetsAgainstAllLayers() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(1_000_000);
+
+        long allTime = Long.MAX_VALUE;
+        long planetsTime = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).computeLayers();
+            allTime = Math.min(allTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            new ObservedSky(WHEN, WHERE, PROJECTION, catalogue).planetPosition();
+            planetsTime = Math.min(planetsTime, System.nanoTime() - start);
+        }
+
+        // The stars aren't computed at all when only the planets are asked for
+        System.out.printf("ObservedSky of 10^6 stars: all layers %.2f ms, planets only %.2f ms%n", allTime / 1e6, planetsTime / 1e6);
+    }
+}
@@ -0,0 +1,74 @@
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObservedSkyCullingTest {
+
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+
+    @Test
+    void culledSkyContainsEveryStarOfTheViewCone() {
+        SplittableRandom rng = TestRandomizer.newRandom();
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(20_000);
+        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(WHEN, WHERE);
+
+        for (int i = 0; i < 50; i++) {
+            HorizontalCoordinates center = HorizontalCoordinates.of(rng.nextDouble(0, 2 * Math.PI), rng.nextDouble(-1.5, 1.5));
+            double radius = rng.nextDouble(0.1, 1.2);
+            ObservedSky sky = new ObservedSky(WHEN, WHERE, new StereographicProjection(center), catalogue, radius);
+
+            int[] sortedIndices = sky.starIndices().clone();
+            Arrays.sort(sortedIndices);
+            List<Star> stars = catalogue.stars();
+            for (int s = 0; s < stars.size(); s++) {
+                if (equToHor.apply(stars.get(s).equatorialPos()).angularDistanceTo(center) <= radius) {
+                    assertTrue(Arrays.binarySearch(sortedIndices, s) >= 0);
+                }
+            }
+            for (int k = 0; k < sky.stars().length; k++) {
+                assertSame(stars.get(sky.starIndices()[k]), sky.stars()[k]);
+            }
+            assertTrue(sky.stars().length < stars.size());
+        }
+    }
+
+    @Test
+    void culledSkyKeepsAsterismStars() {
+        List<Star> stars = TestCatalogues.randomStars(TestRandomizer.newRandom(), 5_000);
+        Asterism asterism = new Asterism(List.of(stars.get(10), stars.get(4_000), stars.get(10)));
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        stars.forEach(builder::addStar);
+        StarCatalogue catalogue = builder.addAsterism(asterism).build();
+
+        ObservedSky sky = new ObservedSky(WHEN, WHERE, new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15)), catalogue, 0.2);
+        List<Integer> indices = sky.usedIndex(asterism);
+        assertEquals(asterism.stars().size(), indices.size());
+        for (int k = 0; k < indices.size(); k++) {
+            assertSame(asterism.stars().get(k), sky.stars()[indices.get(k)]);
+        }
+    }
+
+    @Test
+    void wholeSkyIsTheDefault() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(1_000);
+        ObservedSky sky = new ObservedSky(WHEN, WHERE, new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15)), catalogue);
+        assertEquals(catalogue.stars(), List.of(sky.stars()));
+        for (int k = 0; k < sky.starIndices().length; k++) {
+            assertEquals(k, sky.starIndices()[k]);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import ch.epfl.rigel.astronomy.HygDatabaseLoader;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Timings of the sequential and parallel HYG loaders, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class ParallelCsvLoaderBenchmarkTest {
+
+    private static void load(byte[] bytes, StarCatalogue.Loader loader) throws IOException {
+        new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(bytes), loader);
+    }
+
+    @Test
+    void timeSequentialAgainstParallelLoad() throws IOException {
+        byte[] hyg;
+        try (InputStream s = ParallelCsvLoaderBenchmarkTest.class.getResourceAsStream("/hygdata_v3.csv")) {
+            hyg = s.readAllBytes();
+        }
+        long sequential = Long.MAX_VALUE, parallel = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            load(hyg, HygDatabaseLoader.INSTANCE);
+            sequential = Math.min(sequential, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            load(hyg, HygDatabaseLoader.PARALLEL);
+            parallel = Math.min(parallel, System.nanoTime() - start);
+        }
+        System.out.printf("HYG load on %d cores: sequential %.2f ms, parallel %.2f ms%n",
+                Runtime.getRuntime().availableProcessors(), sequential / 1e6, parallel / 1e6);
+    }
+}
@@ -0,0 +1,109 @@
+import ch.epfl.rigel.astronomy.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelCsvLoaderTest {
+    private static final String HYG_HEADER = "id,hip,hd,hr,gl,bf,proper,ra,dec,dist,pmra,pmdec,rv,mag,absmag,spect,ci,x,y,z,vx,vy,vz,rarad,decrad,pmrarad,pmdecrad,bayer,flam,con,comp,comp_primary,base,lum,var,var_min,var_max";
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream s = ParallelCsvLoaderTest.class.getResourceAsStream(name)) {
+            return s.readAllBytes();
+        }
+    }
+
+    private static List<Star> loadStars(byte[] bytes, StarCatalogue.Loader loader) throws IOException {
+        return new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(bytes), loader).stars();
+    }
+
+    private static void assertSameStars(List<Star> expected, List<Star> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Star e = expected.get(i), a = actual.get(i);
+            assertEquals(e.hipparcosId(), a.hipparcosId());
+            assertEquals(e.name(), a.name());
+            assertEquals(e.equatorialPos().ra(), a.equatorialPos().ra());
+            assertEquals(e.equatorialPos().dec(), a.equatorialPos().dec());
+            assertEquals(e.magnitude(), a.magnitude());
+            assertEquals(e.colorIndex(), a.colorIndex());
+        }
+    }
+
+    @Test
+    void parallelHygLoaderGivesSameStarsInSameOrder() throws IOException {
+        byte[] hyg = resource("/hygdata_v3.csv");
+        assertSameStars(loadStars(hyg, HygDatabaseLoader.INSTANCE), loadStars(hyg, HygDatabaseLoader.PARALLEL));
+    }
+
+    @Test
+    void parallelPulsarLoaderGivesSamePulsarsInSameOrder() throws IOException {
+        byte[] pulsars = resource("/pulscat.csv");
+        List<Pulsar> expected = new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(pulsars), PulsarDatabaseLoader.INSTANCE).pulsars();
+        List<Pulsar> actual = new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(pulsars), PulsarDatabaseLoader.PARALLEL).pulsars();
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Pulsar e = expected.get(i), a = actual.get(i);
+            assertEquals(e.name(), a.name());
+            assertEquals(e.equatorialPos().ra(), a.equatorialPos().ra());
+            assertEquals(e.equatorialPos().dec(), a.equatorialPos().dec());
+            assertEquals(e.getP0(), a.getP0());
+            assertEquals(e.getP1(), a.getP1());
+            assertEquals(e.getAge(), a.getAge());
+            assertEquals(e.getDistance(), a.getDistance());
+        }
+    }
+
+    @Test
+    void parallelHygLoaderParsesNumbersExactly() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var csv = new StringBuilder(HYG_HEADER).append('\n');
+        String[] formats = {"%.3f", "%.6f", "%.12f", "%s", "%.17f", "%.4e"};
+        for (int i = 0; i < 20_000; i++) {
+            String format = formats[i % formats.length];
+            double ra = rng.nextDouble(0, 2 * Math.PI), dec = rng.nextDouble(-Math.PI / 2, Math.PI / 2);
+            String raText = format.equals("%s") ? Double.toString(ra) : String.format(Locale.ROOT, format, ra);
+            String decText = format.equals("%s") ? Double.toString(dec) : String.format(Locale.ROOT, format, dec);
+            String mag = String.format(Locale.ROOT, "%.3f", rng.nextDouble(-2, 12));
+            String ci = (i % 7 == 0) ? "" : String.format(Locale.ROOT, "%.3f", rng.nextDouble(-0.5, 5.5));
+            String proper = (i % 5 == 0) ? "Star" + i : "";
+            String bayer = (i % 3 == 0) ? "Alp" : "";
+            csv.append(i).append(',').append(i % 11 == 0 ? "" : Integer.toString(i)).append(",,,,,").append(proper)
+                    .append(",,,,,,,").append(mag).append(",,,").append(ci).append(",,,,,,,")
+                    .append(raText).append(',').append(decText).append(",,,").append(bayer).append(",,Ori,,,,,,,")
+                    .append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.US_ASCII);
+        assertSameStars(loadStars(bytes, HygDatabaseLoader.INSTANCE), loadStars(bytes, HygDatabaseLoader.PARALLEL));
+    }
+
+    @Test
+    void headerOnlyFileGivesNoStar() throws IOException {
+        assertEquals(0, loadStars(HYG_HEADER.getBytes(StandardCharsets.US_ASCII), HygDatabaseLoader.PARALLEL).size());
+        assertEquals(0, loadStars(new byte[0], HygDatabaseLoader.PARALLEL).size());
+    }
+
+    @Test
+    void emptyCoordinateFailsInBothModes() {
+        String pulsars = "NAME;RA2000;DE2000;P0;P1;AGE;DIST\nJ0244+14;41.2125;14.45;2.1281;;2.73;0\nJ0337+1715;;17.25412;0.0027;1.7E-20;1.3;2.4\n";
+        byte[] pulsarBytes = pulsars.getBytes(StandardCharsets.US_ASCII);
+        for (PulsarDatabaseLoader loader : PulsarDatabaseLoader.values()) {
+            assertThrows(NumberFormatException.class,
+                    () -> new StarCatalogue.Builder().loadFrom(new ByteArrayInputStream(pulsarBytes), loader));
+        }
+
+        String stars = HYG_HEADER + "\n1,1,,,,,,,,,,,,1.0,,,0.5,,,,,,,0.1,,,,,,Ori,,,,,,,\n";
+        byte[] starBytes = stars.getBytes(StandardCharsets.US_ASCII);
+        for (HygDatabaseLoader loader : HygDatabaseLoader.values()) {
+            assertThrows(NumberFormatException.class, () -> loadStars(starBytes, loader));
+        }
+    }
+}
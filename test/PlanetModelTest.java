@@ -12,6 +12,7 @@ import java.util.List;
 import static ch.epfl.rigel.astronomy.PlanetModel.*;
 import static java.lang.Math.toRadians;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class PlanetModelTest {
     private static final ZonedDateTime ZDT_2003_11_22_MIDNIGHT_UTC = ZonedDateTime.of(
@@ -174,4 +175,55 @@ class PlanetModelTest {
         assertEquals(1.110831618309021, mag3, 1e-8);
         assertEquals(-2.154392957687378, mag4, 1e-8);
     }
+
+    @Test
+    void othersAtGivesTheSamePlanetsAsAt() {
+        var when = ZonedDateTime.parse("2020-03-27T17:00:00+01:30");
+        var days = Epoch.J2010.daysUntil(when);
+        var eclToEqu = new EclipticToEquatorialConversion(when);
+        var raDec = new double[2 * OTHERS_COUNT];
+        var angularSize = new float[OTHERS_COUNT];
+        var magnitude = new float[OTHERS_COUNT];
+        othersAt(days, eclToEqu, raDec, angularSize, magnitude);
+
+        for (int p = 0; p < OTHERS_COUNT; p++) {
+            var planet = OTHERS.get(p).at(days, eclToEqu);
+            assertEquals(planet.name(), OTHERS.get(p).getName());
+            assertEquals(planet.equatorialPos().ra(), raDec[2 * p]);
+            assertEquals(planet.equatorialPos().dec(), raDec[2 * p + 1]);
+            assertEquals(planet.angularSize(), angularSize[p]);
+            assertEquals(planet.magnitude(), magnitude[p]);
+        }
+    }
+
+    @Test
+    void othersAtComputesEachMomentOfARange() {
+        var days = new double[100];
+        for (int m = 0; m < days.length; m++) {
+            days[m] = -4000 + 97.3 * m;
+        }
+        var raDec = new double[2 * OTHERS_COUNT * days.length];
+        var angularSize = new float[OTHERS_COUNT * days.length];
+        var magnitude = new float[OTHERS_COUNT * days.length];
+        othersAt(days, raDec, angularSize, magnitude);
+
+        for (int m = 0; m < days.length; m++) {
+            var when = ZonedDateTime.parse("2009-12-31T00:00Z").plus(Duration.ofNanos(Math.round(days[m] * 86_400e9)));
+            var eclToEqu = new EclipticToEquatorialConversion(when);
+            for (int p = 0; p < OTHERS_COUNT; p++) {
+                var i = m * OTHERS_COUNT + p;
+                var planet = OTHERS.get(p).at(days[m], eclToEqu);
+                assertEquals(planet.equatorialPos().ra(), raDec[2 * i], 1e-9);
+                assertEquals(planet.equatorialPos().dec(), raDec[2 * i + 1], 1e-9);
+                assertEquals(planet.angularSize(), angularSize[i]);
+                assertEquals(planet.magnitude(), magnitude[i]);
+            }
+        }
+    }
+
+    @Test
+    void othersAtFailsOnTooSmallArrays() {
+        assertThrows(IllegalArgumentException.class, () ->
+                othersAt(new double[2], new double[2 * OTHERS_COUNT], new float[2 * OTHERS_COUNT], new float[2 * OTHERS_COUNT]));
+    }
 }
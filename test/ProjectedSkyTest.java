@@ -0,0 +1,161 @@
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.Ephemerides;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.ProjectedSky;
+import ch.epfl.rigel.astronomy.SkyLayer;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialToHorizontalConversion;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectedSkyTest {
+
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private static final StereographicProjection PROJECTION = new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15));
+
+    private static ProjectedSky projectedSky(StarCatalogue catalogue, double viewRadius, double canvasScale) {
+        return new ProjectedSky(new Ephemerides(WHEN), new EquatorialToHorizontalConversion(WHEN, WHERE), PROJECTION,
+                catalogue, viewRadius, canvasScale, 800, 600);
+    }
+
+    @Test
+    void observedSkyOnTheSameCanvasSharesThePositions() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(5_000);
+        ProjectedSky projected = projectedSky(catalogue, 1, 1300);
+
+        ObservedSky sky = new ObservedSky(projected, 1300, 800, 600);
+        ObservedSky otherSky = new ObservedSky(projected, 1300, 800, 600);
+        assertSame(sky.starCanvasPosition(), otherSky.starCanvasPosition());
+        assertSame(sky.starFlags(), otherSky.starFlags());
+        assertSame(sky.pulsarFlags(), otherSky.pulsarFlags());
+    }
+
+    @Test
+    void zoomedSkyIsTheSkyObservedOnTheZoomedCanvas() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(5_000);
+        ProjectedSky projected = projectedSky(catalogue, 1, 1300);
+        ObservedSky sky = new ObservedSky(projected, 1300, 800, 600);
+
+        for (double scale : new double[]{400, 1300, 2500, 9000}) {
+            ObservedSky zoomed = new ObservedSky(projected, scale, 1024, 768);
+            ObservedSky expected = new ObservedSky(WHEN, WHERE, PROJECTION, catalogue, 1, scale, 1024, 768);
+
+            assertSame(sky.starPosition(), zoomed.starPosition());
+            assertSame(sky.stars(), zoomed.stars());
+            assertArrayEquals(expected.starPosition(), zoomed.starPosition());
+            assertArrayEquals(expected.starCanvasPosition(), zoomed.starCanvasPosition());
+            assertArrayEquals(expected.starFlags(), zoomed.starFlags());
+            assertArrayEquals(expected.planetPosition(), zoomed.planetPosition());
+            assertEquals(expected.sunPosition().x(), zoomed.sunPosition().x());
+            assertEquals(expected.moonPosition().y(), zoomed.moonPosition().y());
+        }
+    }
+
+    @Test
+    void ephemeridesMatchTheObservedSky() {
+        Ephemerides ephemerides = new Ephemerides(WHEN);
+        ObservedSky sky = new ObservedSky(WHEN, WHERE, PROJECTION, TestCatalogues.randomCatalogue(10));
+
+        assertEquals(sky.sun().equatorialPos().ra(), ephemerides.sun().equatorialPos().ra());
+        assertEquals(sky.moon().equatorialPos().dec(), ephemerides.moon().equatorialPos().dec());
+        assertEquals(7, ephemerides.planets().length);
+        for (int i = 0; i < ephemerides.planets().length; i++) {
+            assertEquals(sky.planets()[i].name(), ephemerides.planets()[i].name());
+            assertEquals(sky.planets()[i].equatorialPos().ra(), ephemerides.planets()[i].equatorialPos().ra());
+        }
+    }
+
+    @Test
+    void onlyTheSubscribedLayersAreObserved() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(5_000);
+        ObservedSky all = new ObservedSky(projectedSky(catalogue, Math.PI, 1300), 1300, 800, 600);
+        for (double viewRadius : new double[]{1, Math.PI}) {
+            ObservedSky stars = new ObservedSky(new ProjectedSky(new Ephemerides(WHEN), new EquatorialToHorizontalConversion(WHEN, WHERE),
+                    PROJECTION, catalogue, EnumSet.of(SkyLayer.SOLAR_SYSTEM, SkyLayer.STARS), viewRadius, 1300, 800, 600), 1300, 800, 600);
+            ObservedSky pulsars = new ObservedSky(new ProjectedSky(new Ephemerides(WHEN), new EquatorialToHorizontalConversion(WHEN, WHERE),
+                    PROJECTION, catalogue, EnumSet.of(SkyLayer.PULSARS), viewRadius, 1300, 800, 600), 1300, 800, 600);
+
+            assertEquals(0, stars.pulsars().length);
+            assertEquals(0, stars.pulsarPosition().length);
+            assertEquals(0, pulsars.stars().length);
+            assertEquals(0, pulsars.starFlags().length);
+            assertTrue(pulsars.usedAsterism().isEmpty());
+            assertTrue(stars.usedAsterism().isEmpty());
+            assertEquals(0, pulsars.planets().length);
+            assertNull(pulsars.sun());
+            assertArrayEquals(all.planetPosition(), stars.planetPosition());
+            assertEquals(all.sunPosition().x(), stars.sunPosition().x());
+        }
+        ObservedSky wholeStars = new ObservedSky(new ProjectedSky(new Ephemerides(WHEN), new EquatorialToHorizontalConversion(WHEN, WHERE),
+                PROJECTION, catalogue, EnumSet.of(SkyLayer.STARS, SkyLayer.ASTERISMS), Math.PI, 1300, 800, 600), 1300, 800, 600);
+        assertArrayEquals(all.starPosition(), wholeStars.starPosition());
+        assertEquals(all.usedAsterism(), wholeStars.usedAsterism());
+    }
+
+    @Test
+    void positionsDontDependOnTheParallelism() throws InterruptedException, ExecutionException {
+        // Enough stars to be split in ranges computed on the fork-join pool
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(150_000);
+        double[] expected = null;
+        for (int parallelism : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                ObservedSky sky = pool.submit(() -> new ObservedSky(projectedSky(catalogue, Math.PI, 1300), 1300, 800, 600)
+                        .computeLayers()).get();
+                if (expected == null) {
+                    expected = sky.starPosition();
+                } else {
+                    assertArrayEquals(expected, sky.starPosition());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void asterismSegmentsJoinTheSuccessiveStarsOfTheAsterisms() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogueWithAsterisms(5_000, 40);
+        for (double viewRadius : new double[]{1, Math.PI}) {
+            ObservedSky sky = new ObservedSky(projectedSky(catalogue, viewRadius, 1300), 1300, 800, 600);
+            Set<List<Integer>> expected = new HashSet<>();
+            for (Asterism asterism : sky.usedAsterism()) {
+                List<Integer> indices = sky.usedIndex(asterism);
+                for (int i = 0; i < indices.size() - 1; i++) {
+                    expected.add(List.of(indices.get(i), indices.get(i + 1)));
+                }
+            }
+            int[] segments = sky.asterismSegments();
+            Set<List<Integer>> actual = new HashSet<>();
+            for (int s = 0; s < segments.length; s += 2) {
+                actual.add(List.of(segments[s], segments[s + 1]));
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, actual);
+        }
+
+        ObservedSky stars = new ObservedSky(new ProjectedSky(new Ephemerides(WHEN), new EquatorialToHorizontalConversion(WHEN, WHERE),
+                PROJECTION, catalogue, EnumSet.of(SkyLayer.STARS), 1, 1300, 800, 600), 1300, 800, 600);
+        assertEquals(0, stars.asterismSegments().length);
+    }
+
+    @Test
+    void constructorFailsOnNegativeViewRadius() {
+        assertThrows(IllegalArgumentException.class, () -> projectedSky(TestCatalogues.randomCatalogue(10), -1, 1300));
+        ProjectedSky projected = projectedSky(TestCatalogues.randomCatalogue(10), 1, 1300);
+        assertThrows(IllegalArgumentException.class, () -> new ObservedSky(projected, 0, 800, 600));
+    }
+}
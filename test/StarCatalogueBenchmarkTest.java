@@ -0,0 +1,43 @@
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+
+/**
+ * Timings of the construction of the catalogue, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class StarCatalogueBenchmarkTest {
+
+    private static final int ASTERISM_SIZE = 6;
+
+    private static double buildNanosPerStar(List<Star> stars) {
+        long start = System.nanoTime();
+        var builder = new StarCatalogue.Builder();
+        for (Star star : stars)
+            builder.addStar(star);
+        for (int i = 0; i + ASTERISM_SIZE <= stars.size(); i += 10 * ASTERISM_SIZE)
+            builder.addAsterism(new Asterism(stars.subList(i, i + ASTERISM_SIZE)));
+        builder.build();
+        long time = System.nanoTime() - start;
+        return (double) time / stars.size();
+    }
+
+    @Test
+    void timeCatalogueBuildFrom5kTo1MStars() {
+        var rng = TestRandomizer.newRandom();
+        List<Star> stars = TestCatalogues.randomStars(rng, 1_000_000);
+
+        // A linear build takes about the same time per star at every size, a quadratic one 20 times more at 1M than at 50k
+        buildNanosPerStar(stars.subList(0, 50_000));
+        for (int count : new int[]{5_000, 50_000, 200_000, 1_000_000}) {
+            double perStar = buildNanosPerStar(stars.subList(0, count));
+            System.out.printf("StarCatalogue: %,9d stars built in %.1f ms (%.0f ns/star)%n", count, perStar * count / 1e6, perStar);
+        }
+    }
+}
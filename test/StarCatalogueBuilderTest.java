@@ -0,0 +1,54 @@
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.ObservedSky;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.GeographicCoordinates;
+import ch.epfl.rigel.coordinates.HorizontalCoordinates;
+import ch.epfl.rigel.coordinates.StereographicProjection;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StarCatalogueBuilderTest {
+
+    @Test
+    void asterismIndicesAreThePositionsOfTheirStars() {
+        List<Star> stars = TestCatalogues.randomStars(TestRandomizer.newRandom(), 500);
+        Asterism asterism = new Asterism(List.of(stars.get(42), stars.get(7), stars.get(499), stars.get(7)));
+
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        stars.forEach(builder::addStar);
+        StarCatalogue catalogue = builder.addAsterism(asterism).build();
+
+        assertEquals(List.of(42, 7, 499, 7), catalogue.asterismIndices(asterism));
+        assertEquals(catalogue.asterismIndices(asterism), new StarCatalogue(stars, List.of(asterism), List.of()).asterismIndices(asterism));
+    }
+
+    @Test
+    void buildFailsOnAsterismWithUnknownStar() {
+        List<Star> stars = TestCatalogues.randomStars(TestRandomizer.newRandom(), 50);
+        Asterism asterism = new Asterism(List.of(stars.get(0), TestCatalogues.randomStar(TestRandomizer.newRandom(), 1_000_000)));
+
+        StarCatalogue.Builder builder = new StarCatalogue.Builder();
+        stars.subList(0, 10).forEach(builder::addStar);
+        builder.addAsterism(asterism);
+        assertThrows(IllegalArgumentException.class, builder::build);
+        assertThrows(IllegalArgumentException.class, () -> new StarCatalogue(stars, List.of(asterism), List.of()));
+    }
+
+    @Test
+    void emptyCatalogueCanBeObserved() {
+        // The sky is shown with an empty catalogue until the catalogue is loaded
+        StarCatalogue empty = new StarCatalogue.Builder().build();
+        ObservedSky sky = new ObservedSky(ZonedDateTime.parse("2020-02-17T20:15:00+01:00"),
+                GeographicCoordinates.ofDeg(6.57, 46.52),
+                new StereographicProjection(HorizontalCoordinates.ofDeg(180, 15)), empty);
+
+        assertEquals(0, sky.stars().length);
+        assertEquals(0, sky.starPosition().length);
+    }
+}
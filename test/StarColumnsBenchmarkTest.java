@@ -0,0 +1,108 @@
+import ch.epfl.rigel.astronomy.SiderealTime;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.astronomy.StarColumns;
+import ch.epfl.rigel.coordinates.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Memory and timings of the star columns against the star objects, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+public class StarColumnsBenchmarkTest {
+
+    private static final int STAR_COUNT = 200_000;
+    private static final ZonedDateTime WHEN = ZonedDateTime.of(LocalDate.of(2020, Month.APRIL, 4), LocalTime.of(0, 0), ZoneOffset.UTC);
+    private static final GeographicCoordinates WHERE = GeographicCoordinates.ofDeg(6.57, 46.52);
+    private static final HorizontalCoordinates CENTER = HorizontalCoordinates.ofDeg(180, 15);
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    void memoryPerStarOfColumnsAndObjects() {
+        long before = usedMemory();
+        List<Star> stars = TestCatalogues.randomStars(TestRandomizer.newRandom(), STAR_COUNT);
+        long objectBytes = usedMemory() - before;
+
+        StarCatalogue catalogue = new StarCatalogue(stars, List.of(), List.of());
+        before = usedMemory();
+        double[] ra = catalogue.starColumns().ra().clone();
+        double[] dec = catalogue.starColumns().dec().clone();
+        float[] magnitude = catalogue.starColumns().magnitude().clone();
+        float[] colorIndex = catalogue.starColumns().colorIndex().clone();
+        int[] hipparcosId = catalogue.starColumns().hipparcosId().clone();
+        long columnBytes = usedMemory() - before;
+
+        for (int length : new int[]{ra.length, dec.length, magnitude.length, colorIndex.length, hipparcosId.length})
+            assertEquals(STAR_COUNT, length);
+        System.out.printf("Memory per star: objects %d bytes, columns %d bytes%n", objectBytes / STAR_COUNT, columnBytes / STAR_COUNT);
+    }
+
+    @Test
+    void timeFullFrameProjection() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(STAR_COUNT);
+        EquatorialToHorizontalConversion equToHor = new EquatorialToHorizontalConversion(WHEN, WHERE);
+        StereographicProjection projection = new StereographicProjection(CENTER);
+        double[] objectXY = new double[2 * STAR_COUNT];
+        double[] columnXY = new double[2 * STAR_COUNT];
+
+        long objectTime = Long.MAX_VALUE, columnTime = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            projectObjects(catalogue.stars(), equToHor, projection, objectXY);
+            objectTime = Math.min(objectTime, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            projectColumns(catalogue.starColumns(), columnXY);
+            columnTime = Math.min(columnTime, System.nanoTime() - start);
+        }
+
+        for (int i = 0; i < objectXY.length; i++)
+            assertEquals(objectXY[i], columnXY[i], 1e-9);
+        System.out.printf("Full-frame projection of %,d stars: objects %.2f ms, columns %.2f ms%n", STAR_COUNT, objectTime / 1e6, columnTime / 1e6);
+    }
+
+    private static void projectObjects(List<Star> stars, EquatorialToHorizontalConversion equToHor, StereographicProjection projection, double[] xy) {
+        int i = 0;
+        for (Star star : stars) {
+            CartesianCoordinates p = projection.apply(equToHor.apply(star.equatorialPos()));
+            xy[i++] = p.x();
+            xy[i++] = p.y();
+        }
+    }
+
+    // Same formulas as EquatorialToHorizontalConversion and StereographicProjection, over primitive columns
+    private static void projectColumns(StarColumns columns, double[] xy) {
+        double siderealTime = SiderealTime.local(WHEN, WHERE);
+        double sinPhi = Math.sin(WHERE.lat()), cosPhi = Math.cos(WHERE.lat());
+        double lambda0 = CENTER.az(), sinPhi1 = Math.sin(CENTER.alt()), cosPhi1 = Math.cos(CENTER.alt());
+        double[] ra = columns.ra(), dec = columns.dec();
+
+        for (int i = 0; i < ra.length; i++) {
+            double hourAngle = siderealTime - ra[i];
+            double sinDec = Math.sin(dec[i]), cosDec = Math.cos(dec[i]);
+            double sinAlt = sinDec * sinPhi + cosDec * cosPhi * Math.cos(hourAngle);
+            double az = Math.atan2(-cosDec * cosPhi * Math.sin(hourAngle), sinDec - sinPhi * sinAlt);
+            double cosAlt = Math.cos(Math.asin(sinAlt));
+
+            double lambdaD = az - lambda0;
+            double cosLambdaD = Math.cos(lambdaD);
+            double d = 1 / (1 + sinAlt * sinPhi1 + cosAlt * cosPhi1 * cosLambdaD);
+            xy[2 * i] = d * cosAlt * Math.sin(lambdaD);
+            xy[2 * i + 1] = d * (sinAlt * cosPhi1 - cosAlt * sinPhi1 * cosLambdaD);
+        }
+    }
+}
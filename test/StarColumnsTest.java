@@ -0,0 +1,50 @@
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.astronomy.StarColumns;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class StarColumnsTest {
+
+    @Test
+    void columnsMatchStarsInIndexOrder() {
+        StarCatalogue catalogue = TestCatalogues.randomCatalogue(500);
+        StarColumns columns = catalogue.starColumns();
+        List<Star> stars = catalogue.stars();
+
+        assertEquals(stars.size(), columns.size());
+        for (int i = 0; i < stars.size(); i++) {
+            Star star = stars.get(i);
+            assertEquals(star.equatorialPos().ra(), columns.ra()[i]);
+            assertEquals(star.equatorialPos().dec(), columns.dec()[i]);
+            assertEquals(star.magnitude(), columns.magnitude()[i]);
+            assertEquals(star.colorIndex(), columns.colorIndex()[i]);
+            assertEquals(star.hipparcosId(), columns.hipparcosId()[i]);
+            assertEquals(star.colorTemperature(), columns.colorTemperature()[i]);
+            assertEquals(star.name(), columns.name(i));
+            assertEquals(star.name(), columns.names()[i]);
+
+            double cosDec = Math.cos(star.equatorialPos().dec());
+            assertEquals(cosDec * Math.cos(star.equatorialPos().ra()), columns.unitX()[i], 1e-15);
+            assertEquals(cosDec * Math.sin(star.equatorialPos().ra()), columns.unitY()[i], 1e-15);
+            assertEquals(Math.sin(star.equatorialPos().dec()), columns.unitZ()[i], 1e-15);
+        }
+    }
+
+    @Test
+    void namesAreMaterializedOnce() {
+        StarColumns columns = TestCatalogues.randomCatalogue(10).starColumns();
+        assertSame(columns.names(), columns.names());
+    }
+
+    @Test
+    void emptyCatalogueHasEmptyColumns() {
+        StarColumns columns = new StarCatalogue.Builder().build().starColumns();
+        assertEquals(0, columns.size());
+        assertEquals(0, columns.names().length);
+    }
+}
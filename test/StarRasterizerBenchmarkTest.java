@@ -0,0 +1,37 @@
+import ch.epfl.rigel.gui.StarRasterizer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.SplittableRandom;
+
+/**
+ * Timings of the star rasterizer, run with -Drigel.benchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "rigel.benchmark", matches = "true")
+class StarRasterizerBenchmarkTest {
+
+    @Test
+    void timeDrawingManyStars() {
+        var rng = new SplittableRandom(1);
+        int count = 50_000;
+        double[] x = new double[count], y = new double[count], d = new double[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = rng.nextDouble(-10, 810);
+            y[i] = rng.nextDouble(-10, 610);
+            d[i] = rng.nextDouble(0.5, 6);
+        }
+        var rasterizer = new StarRasterizer(800, 600);
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            rasterizer.clear();
+            for (int i = 0; i < count; i++) {
+                rasterizer.drawDisc(x[i], y[i], d[i], 0xFFEEDD);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("StarRasterizer: %d stars in %.2f ms%n", count, best / 1e6);
+    }
+}
@@ -0,0 +1,74 @@
+import ch.epfl.rigel.gui.StarRasterizer;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StarRasterizerTest {
+
+    private static double totalAlpha(StarRasterizer rasterizer) {
+        double total = 0;
+        for (int pixel : rasterizer.pixels()) {
+            total += (pixel >>> 24) / 255d;
+        }
+        return total;
+    }
+
+    @Test
+    void discCoversItsArea() {
+        for (double diameter : new double[]{0.3, 1, 2.5, 7, 20}) {
+            var rasterizer = new StarRasterizer(64, 64);
+            rasterizer.drawDisc(31.3, 30.8, diameter, 0xFFFFFF);
+            var area = Math.PI * diameter * diameter / 4;
+            assertEquals(area, totalAlpha(rasterizer), 0.02 * area + 0.1);
+        }
+    }
+
+    @Test
+    void discCenterHasTheColor() {
+        var rasterizer = new StarRasterizer(32, 32);
+        var color = Color.web("#ffcc99");
+        rasterizer.drawDisc(16, 16, 6, StarRasterizer.rgb(color));
+        assertEquals(0xFFFFCC99, rasterizer.pixels()[16 * 32 + 16]);
+        assertEquals(0xFFFFCC99, rasterizer.pixels()[15 * 32 + 15]);
+        assertEquals(0, rasterizer.pixels()[0]);
+    }
+
+    @Test
+    void discIsCenteredOnItsPosition() {
+        var rasterizer = new StarRasterizer(40, 40);
+        rasterizer.drawDisc(12.75, 20.25, 4, 0xFFFFFF);
+        double sum = 0, sumX = 0, sumY = 0;
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                double a = (rasterizer.pixels()[y * 40 + x] >>> 24) / 255d;
+                sum += a;
+                sumX += a * (x + 0.5);
+                sumY += a * (y + 0.5);
+            }
+        }
+        assertEquals(12.75, sumX / sum, 0.05);
+        assertEquals(20.25, sumY / sum, 0.05);
+    }
+
+    @Test
+    void discsOutOfTheImageAreClipped() {
+        var rasterizer = new StarRasterizer(10, 8);
+        rasterizer.drawDisc(-0.5, 4, 5, 0xFFFFFF);
+        rasterizer.drawDisc(10.5, 8.5, 5, 0xFFFFFF);
+        rasterizer.drawDisc(-100, -100, 5, 0xFFFFFF);
+        rasterizer.drawDisc(5, 4, Double.NaN, 0xFFFFFF);
+        assertTrue(totalAlpha(rasterizer) > 0);
+        rasterizer.clear();
+        assertEquals(0, totalAlpha(rasterizer));
+    }
+
+    @Test
+    void discsAreBlendedOverEachOther() {
+        var rasterizer = new StarRasterizer(16, 16);
+        rasterizer.drawDisc(8, 8, 10, 0xFF0000);
+        rasterizer.drawDisc(8, 8, 10, 0x0000FF);
+        assertEquals(0xFF0000FF, rasterizer.pixels()[8 * 16 + 8]);
+    }
+}
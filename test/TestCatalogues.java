@@ -0,0 +1,51 @@
+import ch.epfl.rigel.astronomy.Asterism;
+import ch.epfl.rigel.astronomy.Star;
+import ch.epfl.rigel.astronomy.StarCatalogue;
+import ch.epfl.rigel.coordinates.EquatorialCoordinates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public final class TestCatalogues {
+
+    private TestCatalogues() {
+    }
+
+    public static Star randomStar(SplittableRandom rng, int hipparcosId) {
+        var ra = rng.nextDouble(0, 2d * Math.PI);
+        var dec = rng.nextDouble(-Math.PI / 2d, Math.PI / 2d);
+        var magnitude = (float) rng.nextDouble(-2, 12);
+        var colorIndex = (float) rng.nextDouble(-0.5, 5.5);
+        return new Star(hipparcosId, "HIP " + hipparcosId, EquatorialCoordinates.of(ra, dec), magnitude, colorIndex);
+    }
+
+    public static List<Star> randomStars(SplittableRandom rng, int count) {
+        var stars = new ArrayList<Star>(count);
+        for (int i = 0; i < count; i++)
+            stars.add(randomStar(rng, i + 1));
+        return stars;
+    }
+
+    public static StarCatalogue randomCatalogue(int starCount) {
+        var builder = new StarCatalogue.Builder();
+        for (var star : randomStars(TestRandomizer.newRandom(), starCount))
+            builder.addStar(star);
+        return builder.build();
+    }
+
+    public static StarCatalogue randomCatalogueWithAsterisms(int starCount, int asterismCount) {
+        var rng = TestRandomizer.newRandom();
+        var stars = randomStars(rng, starCount);
+        var builder = new StarCatalogue.Builder();
+        for (var star : stars)
+            builder.addStar(star);
+        for (int i = 0; i < asterismCount; i++) {
+            var asterismStars = new ArrayList<Star>();
+            for (int j = rng.nextInt(2, 8); j > 0; j--)
+                asterismStars.add(stars.get(rng.nextInt(starCount)));
+            builder.addAsterism(new Asterism(asterismStars));
+        }
+        return builder.build();
+    }
+}
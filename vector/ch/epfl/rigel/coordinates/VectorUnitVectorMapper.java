@@ -0,0 +1,99 @@
+package ch.epfl.rigel.coordinates;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static ch.epfl.rigel.coordinates.EquatorialToCanvasKernel.BELOW_HORIZON;
+import static ch.epfl.rigel.coordinates.EquatorialToCanvasKernel.OUTSIDE_CANVAS;
+
+/**
+ * Vectorized implementation of EquatorialToCanvasKernel.applyToUnitVectors, processing as many objects at once as
+ * the preferred species of the processor holds (4 with AVX2, 8 with AVX-512). It must be compiled and run with
+ * --add-modules jdk.incubator.vector, and is only loaded reflectively by EquatorialToCanvasKernel
+ *
+ * @author Souleyman Boudouh (302207)
+ */
+final class VectorUnitVectorMapper implements UnitVectorMapper {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void map(double[] parameters, double[] x, double[] y, double[] z,
+                    double[] planeXY, float[] canvasXY, byte[] flags, int from, int to) {
+        DoubleVector ux = DoubleVector.broadcast(SPECIES, parameters[UX]);
+        DoubleVector uy = DoubleVector.broadcast(SPECIES, parameters[UY]);
+        DoubleVector uz = DoubleVector.broadcast(SPECIES, parameters[UZ]);
+        DoubleVector px = DoubleVector.broadcast(SPECIES, parameters[PX]);
+        DoubleVector py = DoubleVector.broadcast(SPECIES, parameters[PY]);
+        DoubleVector pz = DoubleVector.broadcast(SPECIES, parameters[PZ]);
+        DoubleVector qx = DoubleVector.broadcast(SPECIES, parameters[QX]);
+        DoubleVector qy = DoubleVector.broadcast(SPECIES, parameters[QY]);
+        DoubleVector qz = DoubleVector.broadcast(SPECIES, parameters[QZ]);
+        DoubleVector wx = DoubleVector.broadcast(SPECIES, parameters[WX]);
+        DoubleVector wy = DoubleVector.broadcast(SPECIES, parameters[WY]);
+        DoubleVector wz = DoubleVector.broadcast(SPECIES, parameters[WZ]);
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1);
+        double scale = parameters[SCALE];
+        double centerX = parameters[CENTER_X];
+        double centerY = parameters[CENTER_Y];
+        DoubleVector halfWidth = DoubleVector.broadcast(SPECIES, parameters[HALF_WIDTH]);
+        DoubleVector halfHeight = DoubleVector.broadcast(SPECIES, parameters[HALF_HEIGHT]);
+
+        int lanes = SPECIES.length();
+        double[] laneX = new double[lanes];
+        double[] laneY = new double[lanes];
+
+        int i = from;
+        for (int upperBound = from + SPECIES.loopBound(to - from); i < upperBound; i += lanes) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, i);
+            DoubleVector vz = DoubleVector.fromArray(SPECIES, z, i);
+
+            DoubleVector up = vz.fma(uz, vy.fma(uy, vx.mul(ux)));
+            DoubleVector d = one.div(vz.fma(wz, vy.fma(wy, vx.fma(wx, one))));
+            DoubleVector planeX = vz.fma(pz, vy.fma(py, vx.mul(px))).mul(d);
+            DoubleVector planeY = vz.fma(qz, vy.fma(qy, vx.mul(qx))).mul(d);
+
+            VectorMask<Double> below = up.compare(VectorOperators.LT, 0);
+            VectorMask<Double> inside = planeX.mul(scale).abs().compare(VectorOperators.LE, halfWidth)
+                    .and(planeY.mul(scale).abs().compare(VectorOperators.LE, halfHeight));
+            long belowBits = below.toLong();
+            long outsideBits = inside.not().toLong();
+
+            planeX.intoArray(laneX, 0);
+            planeY.intoArray(laneY, 0);
+            // The positions are interleaved, which the lanes can't store directly
+            for (int l = 0; l < lanes; l++) {
+                int j = i + l;
+                planeXY[2 * j] = laneX[l];
+                planeXY[2 * j + 1] = laneY[l];
+                canvasXY[2 * j] = (float) (centerX + laneX[l] * scale);
+                canvasXY[2 * j + 1] = (float) (centerY - laneY[l] * scale);
+                flags[j] = (byte) ((((belowBits >>> l) & 1) != 0 ? BELOW_HORIZON : 0)
+                        | (((outsideBits >>> l) & 1) != 0 ? OUTSIDE_CANVAS : 0));
+            }
+        }
+
+        for (; i < to; i++) {
+            double up = parameters[UX] * x[i] + parameters[UY] * y[i] + parameters[UZ] * z[i];
+            double d = 1 / (1 + parameters[WX] * x[i] + parameters[WY] * y[i] + parameters[WZ] * z[i]);
+            double planeX = d * (parameters[PX] * x[i] + parameters[PY] * y[i] + parameters[PZ] * z[i]);
+            double planeY = d * (parameters[QX] * x[i] + parameters[QY] * y[i] + parameters[QZ] * z[i]);
+            double dx = planeX * scale;
+            double dy = -planeY * scale;
+
+            planeXY[2 * i] = planeX;
+            planeXY[2 * i + 1] = planeY;
+            canvasXY[2 * i] = (float) (centerX + dx);
+            canvasXY[2 * i + 1] = (float) (centerY + dy);
+
+            byte flag = up < 0 ? BELOW_HORIZON : 0;
+            if (!(Math.abs(dx) <= parameters[HALF_WIDTH] && Math.abs(dy) <= parameters[HALF_HEIGHT])) {
+                flag |= OUTSIDE_CANVAS;
+            }
+            flags[i] = flag;
+        }
+    }
+}